@@ -0,0 +1,107 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Bond percolation on any Lattice: every site is present and the bonds between neighbouring sites
+// are opened instead. The bond from site along direction d, with d in [0, offsets().length / 2),
+// links site to site + offsets()[d]; the other half of the offsets are the same bonds seen from
+// the other end, so every bond has exactly one (site, direction) name.
+public class BondPercolation {
+    private static final byte TOP = 1;
+    private static final byte BOTTOM = 2;
+
+    private int openBonds;
+    private boolean percolates;
+    private final Lattice lattice;
+    private final int[] offsets;
+    private final int directions;
+    // bond (site, d) is bit site * directions + d
+    private final SiteBitSet open;
+    // only meaningful on roots
+    private final byte[] status;
+    private final PathCompressedUF quickUnion;
+
+    public BondPercolation(Lattice lattice) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        this.lattice = lattice;
+        this.offsets = lattice.offsets();
+        this.directions = this.offsets.length / 2;
+
+        if ((long) lattice.size() * this.directions > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many bonds");
+        }
+
+        this.open = new SiteBitSet(lattice.size() * this.directions);
+        this.status = new byte[lattice.size()];
+        this.quickUnion = new PathCompressedUF(lattice.size());
+
+        for (int site : lattice.top()) {
+            this.status[site] |= TOP;
+        }
+
+        for (int site : lattice.bottom()) {
+            this.status[site] |= BOTTOM;
+            // A site on both faces (a lattice one site thick) percolates on its own.
+            this.percolates |= (this.status[site] & TOP) != 0;
+        }
+    }
+
+    // number of directions a bond can be opened along, from any site
+    public int directions() {
+        return this.directions;
+    }
+
+    public void open(int site, int direction) {
+        int adjacent = this.adjacent(site, direction);
+
+        if (!this.open.set(site * this.directions + direction)) {
+            return;
+        }
+
+        this.openBonds++;
+
+        int flags = this.status[this.quickUnion.find(site)] | this.status[this.quickUnion.find(adjacent)];
+        this.status[this.quickUnion.union(site, adjacent)] |= flags;
+
+        if ((flags & (TOP | BOTTOM)) == (TOP | BOTTOM)) {
+            this.percolates = true;
+        }
+    }
+
+    public boolean isOpen(int site, int direction) {
+        this.adjacent(site, direction);
+        return this.open.get(site * this.directions + direction);
+    }
+
+    // whether site is connected to the top face through open bonds
+    public boolean isFull(int site) {
+        if (!this.lattice.contains(site)) {
+            throw new IllegalArgumentException(String.format("%d is not a site of the lattice", site));
+        }
+
+        return (this.status[this.quickUnion.find(site)] & TOP) != 0;
+    }
+
+    public int numberOfOpenBonds() {
+        return this.openBonds;
+    }
+
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    // the other end of the bond, validating it
+    private int adjacent(int site, int direction) {
+        if (direction < 0 || direction >= this.directions || !this.lattice.contains(site)
+                || !this.lattice.contains(site + this.offsets[direction])) {
+            throw new IllegalArgumentException(String.format("No bond from %d along direction %d", site, direction));
+        }
+
+        return site + this.offsets[direction];
+    }
+}
@@ -0,0 +1,174 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+// Same API as Percolation, backed by a single PathCompressedUF.
+// Instead of virtual top and bottom nodes (which need a second union-find to avoid backwash), every
+// root carries flags telling whether its component touches the top or the bottom row.
+public class CompactPercolation {
+    // Largest n for which the n*n sites can be indexed by an int.
+    private static final int MAX_N = 46340;
+    private static final byte OPEN = 1;
+    private static final byte TOP = 2;
+    private static final byte BOTTOM = 4;
+
+    private int openSites;
+    private boolean percolates;
+    private final int n;
+    // OPEN is kept on every site, TOP and BOTTOM are only meaningful on roots.
+    private final byte[] status;
+    private final PathCompressedUF quickUnion;
+
+    public CompactPercolation(int n) {
+        if (n <= 0 || n > MAX_N) {
+            throw new IllegalArgumentException();
+        }
+
+        this.n = n;
+        this.openSites = 0;
+        this.percolates = false;
+        this.status = new byte[n*n];
+        this.quickUnion = new PathCompressedUF(n * n);
+    }
+
+    public void open(int row, int col) {
+        row -= 1;
+        col -= 1;
+
+        if (!this.checkParameters(row) || !this.checkParameters(col)) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d]", this.n, row, col));
+        }
+
+        int currentIndex = this.matrixToArrayIndex(row, col);
+
+        if (this.status[currentIndex] != 0) {
+            return;
+        }
+
+        this.openSites++;
+
+        byte flags = OPEN;
+        if (row == 0) {
+            flags |= TOP;
+        }
+        if (row == this.n - 1) {
+            flags |= BOTTOM;
+        }
+
+        if (row > 0) {
+            flags |= this.connect(currentIndex, this.matrixToArrayIndex(row-1, col));
+        }
+
+        if (row < this.n - 1) {
+            flags |= this.connect(currentIndex, this.matrixToArrayIndex(row+1, col));
+        }
+
+        if (col > 0) {
+            flags |= this.connect(currentIndex, this.matrixToArrayIndex(row, col-1));
+        }
+
+        if (col < this.n - 1) {
+            flags |= this.connect(currentIndex, this.matrixToArrayIndex(row, col+1));
+        }
+
+        this.status[currentIndex] = OPEN;
+        this.status[this.quickUnion.find(currentIndex)] |= flags;
+
+        if ((flags & (TOP | BOTTOM)) == (TOP | BOTTOM)) {
+            this.percolates = true;
+        }
+    }
+
+    public boolean isOpen(int row, int col) {
+        row -= 1;
+        col -= 1;
+        if (!this.checkParameters(row) || !this.checkParameters(col)) {
+            throw new IllegalArgumentException();
+        }
+
+        return this.status[this.matrixToArrayIndex(row, col)] != 0;
+    }
+
+    public boolean isFull(int row, int col) {
+        row -= 1;
+        col -= 1;
+
+        if (!this.checkParameters(row) || !this.checkParameters(col)) {
+            throw new IllegalArgumentException();
+        }
+
+        int index = this.matrixToArrayIndex(row, col);
+
+        if (this.status[index] == 0) {
+            return false;
+        }
+
+        return (this.status[this.quickUnion.find(index)] & TOP) != 0;
+    }
+
+    public int numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    // Unions site with adjacent if adjacent is open, returning the flags of adjacent's component.
+    private byte connect(int site, int adjacent) {
+        if (this.status[adjacent] == 0) {
+            return 0;
+        }
+
+        byte flags = this.status[this.quickUnion.find(adjacent)];
+        this.quickUnion.union(site, adjacent);
+        return flags;
+    }
+
+    private int matrixToArrayIndex(int row, int col) {
+        return (row * this.n) + col;
+    }
+
+    private boolean checkParameters(int p) {
+        return p >= 0 && p < this.n;
+    }
+
+    // Differential check against Percolation: opens random sites in both and compares every query.
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        for (int round = 0; round < rounds; round++) {
+            int n = StdRandom.uniform(1, 30);
+            Percolation expected = new Percolation(n);
+            CompactPercolation actual = new CompactPercolation(n);
+
+            for (int step = 0; step < n * n; step++) {
+                int row = StdRandom.uniform(1, n + 1);
+                int col = StdRandom.uniform(1, n + 1);
+                expected.open(row, col);
+                actual.open(row, col);
+
+                if (expected.percolates() != actual.percolates()
+                        || expected.numberOfOpenSites() != actual.numberOfOpenSites()) {
+                    throw new IllegalStateException(String.format("Mismatch on n = %d after opening [%d,%d]", n, row, col));
+                }
+
+                for (int i = 1; i <= n; i++) {
+                    for (int j = 1; j <= n; j++) {
+                        if (expected.isOpen(i, j) != actual.isOpen(i, j) || expected.isFull(i, j) != actual.isFull(i, j)) {
+                            throw new IllegalStateException(String.format("Mismatch on n = %d at [%d,%d]", n, i, j));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Expected output: OK
+        StdOut.println("OK");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// n-by-n-by-n simple cubic lattice with 6 neighbours per site, percolating from layer 1 to layer n.
+public class CubicLattice implements Lattice {
+    private final int n;
+    // width of an edge, ghost sites included
+    private final int width;
+    private final int[] offsets;
+
+    public CubicLattice(int n) {
+        if (n <= 0 || (long) (n + 2) * (n + 2) * (n + 2) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+
+        this.n = n;
+        this.width = n + 2;
+
+        int w = this.width;
+        this.offsets = new int[] {-w * w, -w, -1, w * w, w, 1};
+    }
+
+    // index of the site in the given layer, row and col, all in [1, n]
+    public int index(int layer, int row, int col) {
+        if (layer < 1 || layer > this.n || row < 1 || row > this.n || col < 1 || col > this.n) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d,%d]", this.n, layer, row, col));
+        }
+
+        return (layer * this.width + row) * this.width + col;
+    }
+
+    @Override
+    public int size() {
+        return this.width * this.width * this.width;
+    }
+
+    @Override
+    public boolean contains(int index) {
+        if (index < 0) {
+            return false;
+        }
+
+        int col = index % this.width;
+        int row = (index / this.width) % this.width;
+        int layer = index / (this.width * this.width);
+        return layer >= 1 && layer <= this.n && row >= 1 && row <= this.n && col >= 1 && col <= this.n;
+    }
+
+    @Override
+    public int[] offsets() {
+        return this.offsets.clone();
+    }
+
+    @Override
+    public int[] top() {
+        return this.layer(1);
+    }
+
+    @Override
+    public int[] bottom() {
+        return this.layer(this.n);
+    }
+
+    private int[] layer(int layer) {
+        int[] sites = new int[this.n * this.n];
+
+        for (int row = 1; row <= this.n; row++) {
+            for (int col = 1; col <= this.n; col++) {
+                sites[(row - 1) * this.n + col - 1] = this.index(layer, row, col);
+            }
+        }
+
+        return sites;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Percolation where sites can be closed again, answered offline.
+// open and close only record a timeline; percolatesAfterEach then answers, for every recorded
+// operation, whether the grid percolates right after it. Every connection (two adjacent open
+// sites, or an open site and the virtual top or bottom) lives for an interval of operations, the
+// intervals are spread over a segment tree on time, and a depth-first walk of the tree unions the
+// connections of each node on entry and rolls them back on exit (offline dynamic connectivity).
+// With E connections over T operations that is O(E log T log n^2) in total, instead of
+// rebuilding a Percolation in O(n^2) after every operation.
+public class DynamicPercolation {
+    private final int n;
+    private final int upVirtualNodeIndex;
+    private final int bottomVirtualNodeIndex;
+    private final SiteBitSet open;
+    private int openSites;
+    private int operations;
+
+    // Connection i links edgeFrom[i] and edgeTo[i] during the operations [edgeStart[i], edgeEnd[i]),
+    // edgeEnd[i] being -1 while the connection is still alive.
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeStart;
+    private int[] edgeEnd;
+    private int edges;
+    private final Map<Long, Integer> alive;
+
+    public DynamicPercolation(int n) {
+        if (n <= 0 || (long) n * n + 2 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+
+        this.n = n;
+        this.upVirtualNodeIndex = n * n;
+        this.bottomVirtualNodeIndex = n * n + 1;
+        this.open = new SiteBitSet(n * n);
+        this.openSites = 0;
+        this.operations = 0;
+
+        this.edgeFrom = new int[16];
+        this.edgeTo = new int[16];
+        this.edgeStart = new int[16];
+        this.edgeEnd = new int[16];
+        this.edges = 0;
+        this.alive = new HashMap<>();
+    }
+
+    public void open(int row, int col) {
+        int index = this.toIndex(row, col);
+        int time = this.operations++;
+
+        if (!this.open.set(index)) {
+            return;
+        }
+
+        this.openSites++;
+        row -= 1;
+        col -= 1;
+
+        for (int adjacent : this.connections(index, row, col)) {
+            this.connect(index, adjacent, time);
+        }
+    }
+
+    public void close(int row, int col) {
+        int index = this.toIndex(row, col);
+        int time = this.operations++;
+
+        if (!this.open.clear(index)) {
+            return;
+        }
+
+        this.openSites--;
+        row -= 1;
+        col -= 1;
+
+        for (int adjacent : this.connections(index, row, col)) {
+            this.disconnect(index, adjacent, time);
+        }
+    }
+
+    // whether the site is open after the last recorded operation
+    public boolean isOpen(int row, int col) {
+        return this.open.get(this.toIndex(row, col));
+    }
+
+    public int numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    public int numberOfOperations() {
+        return this.operations;
+    }
+
+    // whether the grid percolates right after each recorded operation, in recording order
+    public boolean[] percolatesAfterEach() {
+        boolean[] percolates = new boolean[this.operations];
+
+        if (this.operations == 0) {
+            return percolates;
+        }
+
+        // The connections of every segment tree node, packed one node after the other.
+        int nodes = 4 * this.operations;
+        int[] first = new int[nodes + 1];
+
+        for (int i = 0; i < this.edges; i++) {
+            this.count(first, 1, 0, this.operations, this.edgeStart[i], this.end(i));
+        }
+
+        for (int node = 0; node < nodes; node++) {
+            first[node + 1] += first[node];
+        }
+
+        int[] next = Arrays.copyOf(first, nodes);
+        int[] nodeEdges = new int[first[nodes]];
+
+        for (int i = 0; i < this.edges; i++) {
+            this.fill(next, nodeEdges, i, 1, 0, this.operations, this.edgeStart[i], this.end(i));
+        }
+
+        RollbackUF quickUnion = new RollbackUF(this.n * this.n + 2);
+        this.walk(quickUnion, first, nodeEdges, percolates, 1, 0, this.operations);
+        return percolates;
+    }
+
+    private int end(int edge) {
+        return this.edgeEnd[edge] == -1 ? this.operations : this.edgeEnd[edge];
+    }
+
+    // counts, in first[node + 1], the connections alive during [from, to) stored at node and below
+    private void count(int[] first, int node, int lo, int hi, int from, int to) {
+        if (to <= lo || hi <= from) {
+            return;
+        }
+
+        if (from <= lo && hi <= to) {
+            first[node + 1]++;
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        this.count(first, 2 * node, lo, mid, from, to);
+        this.count(first, 2 * node + 1, mid, hi, from, to);
+    }
+
+    private void fill(int[] next, int[] nodeEdges, int edge, int node, int lo, int hi, int from, int to) {
+        if (to <= lo || hi <= from) {
+            return;
+        }
+
+        if (from <= lo && hi <= to) {
+            nodeEdges[next[node]++] = edge;
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        this.fill(next, nodeEdges, edge, 2 * node, lo, mid, from, to);
+        this.fill(next, nodeEdges, edge, 2 * node + 1, mid, hi, from, to);
+    }
+
+    private void walk(RollbackUF quickUnion, int[] first, int[] nodeEdges, boolean[] percolates, int node, int lo, int hi) {
+        int snapshot = quickUnion.snapshot();
+
+        for (int i = first[node]; i < first[node + 1]; i++) {
+            int edge = nodeEdges[i];
+            quickUnion.union(this.edgeFrom[edge], this.edgeTo[edge]);
+        }
+
+        if (hi - lo == 1) {
+            percolates[lo] = quickUnion.connected(this.upVirtualNodeIndex, this.bottomVirtualNodeIndex);
+        } else {
+            int mid = (lo + hi) >>> 1;
+            this.walk(quickUnion, first, nodeEdges, percolates, 2 * node, lo, mid);
+            this.walk(quickUnion, first, nodeEdges, percolates, 2 * node + 1, mid, hi);
+        }
+
+        quickUnion.rollback(snapshot);
+    }
+
+    // the open neighbours of the site at 0-based (row, col), and the virtual nodes it touches
+    private int[] connections(int index, int row, int col) {
+        int[] adjacent = new int[6];
+        int count = 0;
+
+        if (row == 0) {
+            adjacent[count++] = this.upVirtualNodeIndex;
+        }
+
+        if (row == this.n - 1) {
+            adjacent[count++] = this.bottomVirtualNodeIndex;
+        }
+
+        if (row > 0 && this.open.get(index - this.n)) {
+            adjacent[count++] = index - this.n;
+        }
+
+        if (row < this.n - 1 && this.open.get(index + this.n)) {
+            adjacent[count++] = index + this.n;
+        }
+
+        if (col > 0 && this.open.get(index - 1)) {
+            adjacent[count++] = index - 1;
+        }
+
+        if (col < this.n - 1 && this.open.get(index + 1)) {
+            adjacent[count++] = index + 1;
+        }
+
+        return Arrays.copyOf(adjacent, count);
+    }
+
+    private void connect(int p, int q, int time) {
+        if (this.edges == this.edgeFrom.length) {
+            int capacity = this.edges * 2;
+            this.edgeFrom = Arrays.copyOf(this.edgeFrom, capacity);
+            this.edgeTo = Arrays.copyOf(this.edgeTo, capacity);
+            this.edgeStart = Arrays.copyOf(this.edgeStart, capacity);
+            this.edgeEnd = Arrays.copyOf(this.edgeEnd, capacity);
+        }
+
+        this.edgeFrom[this.edges] = p;
+        this.edgeTo[this.edges] = q;
+        this.edgeStart[this.edges] = time;
+        this.edgeEnd[this.edges] = -1;
+        this.alive.put(this.key(p, q), this.edges);
+        this.edges++;
+    }
+
+    private void disconnect(int p, int q, int time) {
+        this.edgeEnd[this.alive.remove(this.key(p, q))] = time;
+    }
+
+    private long key(int p, int q) {
+        return p < q ? ((long) p << 32) | q : ((long) q << 32) | p;
+    }
+
+    private int toIndex(int row, int col) {
+        if (row < 1 || row > this.n || col < 1 || col > this.n) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d]", this.n, row, col));
+        }
+
+        return (row - 1) * this.n + (col - 1);
+    }
+
+    // Checks percolatesAfterEach against a Percolation rebuilt after every operation.
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        for (int round = 0; round < rounds; round++) {
+            int n = StdRandom.uniform(1, 12);
+            int steps = StdRandom.uniform(1, 4 * n * n + 1);
+            DynamicPercolation dynamic = new DynamicPercolation(n);
+            boolean[][] grid = new boolean[n][n];
+            boolean[] expected = new boolean[steps];
+
+            for (int step = 0; step < steps; step++) {
+                int row = StdRandom.uniform(1, n + 1);
+                int col = StdRandom.uniform(1, n + 1);
+
+                // Opening twice as often as closing lets the grid get past the threshold.
+                if (StdRandom.uniform(3) == 0) {
+                    dynamic.close(row, col);
+                    grid[row - 1][col - 1] = false;
+                } else {
+                    dynamic.open(row, col);
+                    grid[row - 1][col - 1] = true;
+                }
+
+                Percolation rebuilt = new Percolation(n);
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        if (grid[i][j]) {
+                            rebuilt.open(i + 1, j + 1);
+                        }
+                    }
+                }
+                expected[step] = rebuilt.percolates();
+            }
+
+            if (!Arrays.equals(expected, dynamic.percolatesAfterEach())) {
+                throw new IllegalStateException(String.format("Mismatch on n = %d", n));
+            }
+        }
+
+        // Expected output: OK
+        StdOut.println("OK");
+    }
+}
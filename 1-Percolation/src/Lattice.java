@@ -0,0 +1,27 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Geometry of a lattice for LatticePercolation and BondPercolation.
+// Sites are numbered in [0, size()), including a border of ghost sites wrapped around the real
+// ones: a ghost site is never opened, so the neighbours of a real site are always at the same
+// offsets from it and walking them needs no bounds checks.
+public interface Lattice {
+    // number of site indices, ghost sites included
+    int size();
+
+    // whether index is a real site rather than a ghost one
+    boolean contains(int index);
+
+    // Offsets from a site to its neighbours. The first half are the forward directions and the
+    // second half their opposites: offsets()[d + offsets().length / 2] == -offsets()[d].
+    int[] offsets();
+
+    // real sites on the face percolation starts from
+    int[] top();
+
+    // real sites on the face percolation has to reach
+    int[] bottom();
+}
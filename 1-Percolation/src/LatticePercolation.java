@@ -0,0 +1,157 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.SplittableRandom;
+
+// Site percolation on any Lattice, using the single union-find with per-root flags of CompactPercolation.
+// The neighbour offsets are copied out of the lattice once, and ghost sites are never open, so
+// opening a site only walks a flat offset array with no bounds checks.
+public class LatticePercolation {
+    private static final byte OPEN = 1;
+    private static final byte TOP = 2;
+    private static final byte BOTTOM = 4;
+
+    private int openSites;
+    private boolean percolates;
+    private final Lattice lattice;
+    private final int[] offsets;
+    // OPEN is kept on every site, TOP and BOTTOM are only meaningful on roots.
+    private final byte[] status;
+    private final PathCompressedUF quickUnion;
+
+    public LatticePercolation(Lattice lattice) {
+        if (lattice == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        this.lattice = lattice;
+        this.offsets = lattice.offsets();
+        this.status = new byte[lattice.size()];
+        this.quickUnion = new PathCompressedUF(lattice.size());
+
+        // Closed sites are their own roots, so the face flags can be set on them up front.
+        for (int site : lattice.top()) {
+            this.status[site] |= TOP;
+        }
+
+        for (int site : lattice.bottom()) {
+            this.status[site] |= BOTTOM;
+        }
+    }
+
+    public void open(int site) {
+        if (!this.lattice.contains(site)) {
+            throw new IllegalArgumentException(String.format("%d is not a site of the lattice", site));
+        }
+
+        if ((this.status[site] & OPEN) != 0) {
+            return;
+        }
+
+        this.openSites++;
+        this.status[site] |= OPEN;
+
+        int flags = this.status[site];
+        for (int offset : this.offsets) {
+            int adjacent = site + offset;
+
+            if ((this.status[adjacent] & OPEN) != 0) {
+                flags |= this.status[this.quickUnion.find(adjacent)];
+                this.quickUnion.union(site, adjacent);
+            }
+        }
+
+        this.status[this.quickUnion.find(site)] |= flags;
+
+        if ((flags & (TOP | BOTTOM)) == (TOP | BOTTOM)) {
+            this.percolates = true;
+        }
+    }
+
+    public boolean isOpen(int site) {
+        if (!this.lattice.contains(site)) {
+            throw new IllegalArgumentException(String.format("%d is not a site of the lattice", site));
+        }
+
+        return (this.status[site] & OPEN) != 0;
+    }
+
+    // whether site is open and connected to the top face
+    public boolean isFull(int site) {
+        if (!this.isOpen(site)) {
+            return false;
+        }
+
+        return (this.status[this.quickUnion.find(site)] & TOP) != 0;
+    }
+
+    public int numberOfOpenSites() {
+        return this.openSites;
+    }
+
+    public boolean percolates() {
+        return this.percolates;
+    }
+
+    // Estimates the site percolation threshold of a few lattices.
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        SplittableRandom random = new SplittableRandom(args.length > 2 ? Long.parseLong(args[2]) : 0);
+
+        Lattice[] lattices = {
+                new PlanarLattice(n, PlanarLattice.Neighbourhood.SQUARE),
+                new PlanarLattice(n, PlanarLattice.Neighbourhood.MOORE),
+                new PlanarLattice(n, PlanarLattice.Neighbourhood.TRIANGULAR),
+                new CubicLattice(Math.max(1, (int) Math.cbrt((double) n * n))),
+        };
+        String[] names = {"square", "moore", "triangular", "cubic"};
+
+        // Expected output: about 0.593, 0.407, 0.5 and 0.312
+        for (int i = 0; i < lattices.length; i++) {
+            Lattice lattice = lattices[i];
+            int[] sites = realSites(lattice);
+            double sum = 0;
+
+            for (int t = 0; t < trials; t++) {
+                LatticePercolation p = new LatticePercolation(lattice);
+
+                for (int opened = 0; !p.percolates(); opened++) {
+                    int j = random.nextInt(opened, sites.length);
+                    int site = sites[j];
+                    sites[j] = sites[opened];
+                    sites[opened] = site;
+                    p.open(site);
+                }
+
+                sum += (double) p.numberOfOpenSites() / sites.length;
+            }
+
+            StdOut.println(String.format("%s = %f", names[i], sum / trials));
+        }
+    }
+
+    static int[] realSites(Lattice lattice) {
+        int count = 0;
+        for (int i = 0; i < lattice.size(); i++) {
+            if (lattice.contains(i)) {
+                count++;
+            }
+        }
+
+        int[] sites = new int[count];
+        count = 0;
+        for (int i = 0; i < lattice.size(); i++) {
+            if (lattice.contains(i)) {
+                sites[count++] = i;
+            }
+        }
+
+        return sites;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.SplittableRandom;
+
+// Newman-Ziff estimator: every trial opens the sites of an n-by-n grid in random order and records
+// the exact number of open sites at which the grid first percolates.
+// From those counts, the probability Q(m) that a grid with m open sites percolates is known for every
+// m at once, and the percolation probability at any site vacancy probability p follows by convolving
+// Q with the binomial distribution:
+//     P(p) = sum over m of C(N, m) p^m (1 - p)^(N - m) Q(m),   N = n*n
+// so the whole P(p) curve comes out of a single pass instead of one simulation per p.
+public class NewmanZiff {
+    // Binomial weights below this fraction of the weight at the mode are dropped.
+    private static final double EPSILON = 1e-15;
+
+    private final int sites;
+    private final int trials;
+    // percolated[m] = number of trials that percolate with m open sites
+    private final int[] percolated;
+    private long thresholdSum;
+
+    public NewmanZiff(int n, int trials, long seed) {
+        if (n <= 0 || trials <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.sites = n * n;
+        this.trials = trials;
+
+        int[] thresholds = new int[this.sites + 1];
+        int[] order = PercolationStats.identityPermutation(n);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < trials; i++) {
+            int threshold = PercolationStats.openUntilPercolates(new Percolation(n), n, order, random);
+            thresholds[threshold]++;
+            this.thresholdSum += threshold;
+        }
+
+        // A grid that percolates with m open sites still percolates once more sites are open.
+        this.percolated = thresholds;
+        for (int m = 1; m <= this.sites; m++) {
+            this.percolated[m] += this.percolated[m - 1];
+        }
+    }
+
+    // mean fraction of open sites at which the grid first percolates
+    public double meanThreshold() {
+        return (double) this.thresholdSum / this.trials / this.sites;
+    }
+
+    // estimated probability that a grid with exactly m open sites percolates
+    public double probabilityAt(int m) {
+        if (m < 0 || m > this.sites) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was %d", this.sites, m));
+        }
+
+        return (double) this.percolated[m] / this.trials;
+    }
+
+    // estimated probability that a grid whose sites are open with probability p percolates
+    public double percolationProbability(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException(String.format("Expected a probability, but was %f", p));
+        }
+
+        if (p == 0) {
+            return this.probabilityAt(0);
+        }
+
+        if (p == 1) {
+            return this.probabilityAt(this.sites);
+        }
+
+        // Walk outwards from the mode of B(N, p) with the ratio between consecutive terms, so
+        // no binomial coefficient is ever computed explicitly. Weights are relative to the mode
+        // and normalized at the end.
+        int mode = (int) Math.min(this.sites, Math.floor((this.sites + 1) * p));
+        double odds = p / (1 - p);
+        double total = 1;
+        double weighted = this.percolated[mode];
+
+        double weight = 1;
+        for (int m = mode; m < this.sites && weight > EPSILON; m++) {
+            weight *= odds * (this.sites - m) / (m + 1);
+            total += weight;
+            weighted += weight * this.percolated[m + 1];
+        }
+
+        weight = 1;
+        for (int m = mode; m > 0 && weight > EPSILON; m--) {
+            weight *= (double) m / (odds * (this.sites - m + 1));
+            total += weight;
+            weighted += weight * this.percolated[m - 1];
+        }
+
+        return weighted / total / this.trials;
+    }
+
+    // percolation probability for every p in ps, in the same order
+    public double[] percolationProbability(double[] ps) {
+        double[] curve = new double[ps.length];
+
+        for (int i = 0; i < ps.length; i++) {
+            curve[i] = this.percolationProbability(ps[i]);
+        }
+
+        return curve;
+    }
+
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int t = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int points = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        NewmanZiff nz = new NewmanZiff(n, t, seed);
+
+        StdOut.println("mean threshold = " + String.format("%f", nz.meanThreshold()));
+        for (int i = 0; i <= points; i++) {
+            double p = (double) i / points;
+            StdOut.println(String.format("P(%f) = %f", p, nz.percolationProbability(p)));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+// Compact binary log of the sites opened on an n-by-n grid, in order.
+// Layout (big endian): magic, version, n (ints), number of sites (long), then one int per opened
+// site holding its linear index (row - 1) * n + (col - 1).
+// Replaying maps the file and decodes the indices straight out of the mapping, a window at a time.
+public class OpeningLog {
+    private static final int MAGIC = 0x504F4C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    // Sites decoded per mapped window, keeping every window well below the 2 GB mapping limit.
+    private static final int WINDOW_SITES = 1 << 26;
+
+    public static void write(Path file, int n, int[] linearIndices) throws IOException {
+        if (n <= 0 || linearIndices == null) {
+            throw new IllegalArgumentException();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeLong(linearIndices.length);
+
+            for (int index : linearIndices) {
+                if (index < 0 || index >= n * n) {
+                    throw new IllegalArgumentException(String.format("Expected an index in [0,%d), but was %d", n * n, index));
+                }
+                out.writeInt(index);
+            }
+        }
+    }
+
+    // Opens the logged sites on a new Percolation, in order, and returns the 1-based step at which
+    // it first percolates, or -1 if it never does.
+    public static long replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+
+            if (header.getInt() != MAGIC) {
+                throw new IOException(String.format("%s is not an opening log", file));
+            }
+
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported opening log version %d in %s", version, file));
+            }
+
+            int n = header.getInt();
+            long sites = header.getLong();
+
+            if (channel.size() < HEADER_BYTES + sites * Integer.BYTES) {
+                throw new IOException(String.format("%s is truncated", file));
+            }
+
+            Percolation percolation = new Percolation(n);
+            long position = HEADER_BYTES;
+            long step = 0;
+
+            while (step < sites) {
+                int window = (int) Math.min(WINDOW_SITES, sites - step);
+                IntBuffer indices = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) window * Integer.BYTES).asIntBuffer();
+
+                for (int i = 0; i < window; i++) {
+                    int index = indices.get(i);
+                    int row = index / n;
+                    percolation.open(row + 1, index - row * n + 1);
+                    step++;
+
+                    if (percolation.percolates()) {
+                        return step;
+                    }
+                }
+
+                position += (long) window * Integer.BYTES;
+            }
+
+            return -1;
+        }
+    }
+
+    // Converts a text file of 1-based "row col" pairs, as read by the other clients, to a log.
+    public static void convert(int n, Path text, Path file) throws IOException {
+        int[] indices = new int[1024];
+        int count = 0;
+        int lineNumber = 0;
+
+        try (BufferedReader in = Files.newBufferedReader(text)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length < 2) {
+                    continue;
+                }
+
+                if (count == indices.length) {
+                    int[] copy = new int[count * 2];
+                    System.arraycopy(indices, 0, copy, 0, count);
+                    indices = copy;
+                }
+
+                int row = Integer.parseInt(parts[0]);
+                int col = Integer.parseInt(parts[1]);
+
+                // An out of range col would silently wrap around onto a site of another row.
+                if (row < 1 || row > n || col < 1 || col > n) {
+                    throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d] at line %d", n, row, col, lineNumber));
+                }
+
+                indices[count++] = (row - 1) * n + col - 1;
+            }
+        }
+
+        int[] trimmed = new int[count];
+        System.arraycopy(indices, 0, trimmed, 0, count);
+        write(file, n, trimmed);
+    }
+
+    // Writes the log of a trial opening every site of the grid in a random order drawn from seed.
+    public static void generate(int n, long seed, Path file) throws IOException {
+        int[] sites = PercolationStats.identityPermutation(n);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = sites.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = sites[i];
+            sites[i] = sites[j];
+            sites[j] = swap;
+        }
+
+        write(file, n, sites);
+    }
+
+    // Usage:
+    //     OpeningLog convert n text log
+    //     OpeningLog generate n seed log
+    //     OpeningLog replay log
+    public static void main(String[] args) throws IOException {
+        switch (args[0]) {
+            case "convert":
+                convert(Integer.parseInt(args[1]), Paths.get(args[2]), Paths.get(args[3]));
+                break;
+            case "generate":
+                generate(Integer.parseInt(args[1]), Long.parseLong(args[2]), Paths.get(args[3]));
+                break;
+            case "replay":
+                long step = replay(Paths.get(args[1]));
+                StdOut.println(step == -1 ? "does not percolate" : "percolates at step " + step);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " + args[0]);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Union-find over [0, n) with union by rank and path halving.
+// The parents live in a flat int[] and the ranks in a byte[] (a rank never exceeds 31), so the
+// structure takes exactly 5 bytes per element and find runs in near-constant amortized time.
+// Indices are not validated: an out of range index fails with the array's own exception.
+public class PathCompressedUF {
+    private final int[] parent;
+    private final byte[] rank;
+    private int count;
+
+    public PathCompressedUF(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.parent = new int[n];
+        this.rank = new byte[n];
+        this.count = n;
+
+        for (int i = 0; i < n; i++) {
+            this.parent[i] = i;
+        }
+    }
+
+    // number of components
+    public int count() {
+        return this.count;
+    }
+
+    // root of the component containing p
+    public int find(int p) {
+        while (p != this.parent[p]) {
+            // Path halving: point every other node on the path to its grandparent.
+            this.parent[p] = this.parent[this.parent[p]];
+            p = this.parent[p];
+        }
+
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return this.find(p) == this.find(q);
+    }
+
+    // merges the components containing p and q and returns the root of the merged component
+    public int union(int p, int q) {
+        int rootP = this.find(p);
+        int rootQ = this.find(q);
+
+        if (rootP == rootQ) {
+            return rootP;
+        }
+
+        this.count--;
+
+        if (this.rank[rootP] < this.rank[rootQ]) {
+            this.parent[rootP] = rootQ;
+            return rootQ;
+        }
+
+        if (this.rank[rootP] == this.rank[rootQ]) {
+            this.rank[rootP]++;
+        }
+
+        this.parent[rootQ] = rootP;
+        return rootP;
+    }
+}
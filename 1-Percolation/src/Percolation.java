@@ -4,42 +4,47 @@
     @copyright: Check the repository license.
 */
 
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import java.util.Arrays;
 
 public class Percolation {
+    // Largest n for which the n*n sites can be indexed by an int.
+    private static final int MAX_N = 46340;
+
     private int openSites;
     private final int n;
-    private final boolean[] open;
-    private final WeightedQuickUnionUF quickUnion;
-    private final WeightedQuickUnionUF quickUnionBackup;
+    private final SiteBitSet open;
 
-    private final int upVirtualNodeIndex;
-    private final int bottomVirtualNodeIndex;
+    // Components of the open sites alone, without virtual nodes, so that they are the actual
+    // clusters. As in CompactPercolation, roots carry flags instead: a cluster is full (touches the
+    // top row) if its root is in fullRoots and touches the bottom row if its root is in
+    // bottomRoots. Being free of a virtual top, these components can't suffer from backwash.
+    // clusterSize holds the size of every root.
+    private final PathCompressedUF clusters;
+    private final SiteBitSet fullRoots;
+    private final SiteBitSet bottomRoots;
+    private final int[] clusterSize;
+    // set once a cluster touches both the top and the bottom row
+    private boolean percolates;
+    // sizeCounts[s] = number of clusters of size s, for s up to largestCluster
+    private int[] sizeCounts;
+    private int numberOfClusters;
+    private int largestCluster;
+    private long sumOfSquaredSizes;
 
     public Percolation(int n) {
-        if (n <= 0) {
+        if (n <= 0 || n > MAX_N) {
             throw new IllegalArgumentException();
         }
 
         this.n = n;
         this.openSites = 0;
-        this.open = new boolean[n*n];
-
-        this.quickUnion = new WeightedQuickUnionUF(n * n + 2);
-        this.quickUnionBackup = new WeightedQuickUnionUF(n * n + 1);
-
-        this.upVirtualNodeIndex = n*n;
-        this.bottomVirtualNodeIndex = n*n+1;
-
-        // Setting up virtual nodes.
-        for (int i = 0; i < n; i++) {
-            this.quickUnion.union(i, this.upVirtualNodeIndex);
-            this.quickUnionBackup.union(i, this.upVirtualNodeIndex);
-        }
+        this.open = new SiteBitSet(n*n);
 
-        for (int i = n*n - 1; i > n*n - 1 - n; i--) {
-            this.quickUnion.union(i, this.bottomVirtualNodeIndex);
-        }
+        this.clusters = new PathCompressedUF(n * n);
+        this.fullRoots = new SiteBitSet(n * n);
+        this.bottomRoots = new SiteBitSet(n * n);
+        this.clusterSize = new int[n * n];
+        this.sizeCounts = new int[2];
     }
 
     public void open(int row, int col) {
@@ -50,47 +55,135 @@ public class Percolation {
             throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d]", this.n, row, col));
         }
 
+        this.openSite(row, col);
+    }
+
+    // Opens every site in linearIndices, where the site at (row, col) has index (row - 1) * n + (col - 1).
+    // Same result as calling open on every site, but indices are validated once up front (nothing is
+    // opened if one is out of range) and sites are opened in index order, so consecutive unions touch
+    // neighbouring memory. linearIndices is not modified and may contain duplicates.
+    public void openAll(int[] linearIndices) {
+        if (linearIndices == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        int[] sorted = linearIndices.clone();
+        Arrays.sort(sorted);
+
+        if (sorted.length > 0 && (sorted[0] < 0 || sorted[sorted.length - 1] >= this.n * this.n)) {
+            throw new IllegalArgumentException(String.format("Expected indices in [0,%d), but was [%d,%d]", this.n * this.n, sorted[0], sorted[sorted.length - 1]));
+        }
+
+        for (int index : sorted) {
+            int row = index / this.n;
+            this.openSite(row, index - row * this.n);
+        }
+    }
+
+    // Opens the site at 0-based (row, col), whose bounds are already checked.
+    private void openSite(int row, int col) {
         int currentIndex = this.matrixToArrayIndex(row, col);
         int currentAdjacentIndex;
 
-        if (!this.open[currentIndex]) {
-            this.open[currentIndex] = true;
-            this.openSites++;
+        // An already open site is already connected to its open neighbours.
+        if (!this.open.set(currentIndex)) {
+            return;
         }
 
+        this.openSites++;
+        this.addCluster(currentIndex, row == 0, row == this.n - 1);
+
         if (row > 0) {
             currentAdjacentIndex = this.matrixToArrayIndex(row-1, col);
-            if (this.open[currentAdjacentIndex]) {
-                this.quickUnion.union(currentIndex, currentAdjacentIndex);
-                this.quickUnionBackup.union(currentIndex, currentAdjacentIndex);
+            if (this.open.get(currentAdjacentIndex)) {
+                this.mergeClusters(currentIndex, currentAdjacentIndex);
             }
         }
 
         if (row < this.n - 1) {
             currentAdjacentIndex = this.matrixToArrayIndex(row+1, col);
-            if (this.open[currentAdjacentIndex]) {
-                this.quickUnion.union(currentIndex, currentAdjacentIndex);
-                this.quickUnionBackup.union(currentIndex, currentAdjacentIndex);
+            if (this.open.get(currentAdjacentIndex)) {
+                this.mergeClusters(currentIndex, currentAdjacentIndex);
             }
         }
 
         if (col > 0) {
             currentAdjacentIndex = this.matrixToArrayIndex(row, col-1);
-            if (this.open[currentAdjacentIndex]) {
-                this.quickUnion.union(currentIndex, currentAdjacentIndex);
-                this.quickUnionBackup.union(currentIndex, currentAdjacentIndex);
+            if (this.open.get(currentAdjacentIndex)) {
+                this.mergeClusters(currentIndex, currentAdjacentIndex);
             }
         }
 
         if (col < this.n - 1) {
             currentAdjacentIndex = this.matrixToArrayIndex(row, col+1);
-            if (this.open[currentAdjacentIndex]) {
-                this.quickUnion.union(currentIndex, currentAdjacentIndex);
-                this.quickUnionBackup.union(currentIndex, currentAdjacentIndex);
+            if (this.open.get(currentAdjacentIndex)) {
+                this.mergeClusters(currentIndex, currentAdjacentIndex);
             }
         }
     }
 
+    // Records the just opened site as a cluster of its own.
+    private void addCluster(int site, boolean full, boolean bottom) {
+        this.clusterSize[site] = 1;
+        this.sizeCounts[1]++;
+        this.numberOfClusters++;
+        this.largestCluster = Math.max(this.largestCluster, 1);
+        this.sumOfSquaredSizes++;
+
+        if (full) {
+            this.fullRoots.set(site);
+        }
+
+        if (bottom) {
+            this.bottomRoots.set(site);
+        }
+
+        if (full && bottom) {
+            this.percolates = true;
+        }
+    }
+
+    // Merges the clusters of two adjacent open sites, updating the flags and the statistics.
+    private void mergeClusters(int site, int adjacent) {
+        int siteRoot = this.clusters.find(site);
+        int adjacentRoot = this.clusters.find(adjacent);
+
+        if (siteRoot == adjacentRoot) {
+            return;
+        }
+
+        int siteSize = this.clusterSize[siteRoot];
+        int adjacentSize = this.clusterSize[adjacentRoot];
+        int size = siteSize + adjacentSize;
+        boolean full = this.fullRoots.get(siteRoot) || this.fullRoots.get(adjacentRoot);
+        boolean bottom = this.bottomRoots.get(siteRoot) || this.bottomRoots.get(adjacentRoot);
+        int root = this.clusters.union(siteRoot, adjacentRoot);
+
+        this.clusterSize[root] = size;
+        if (full) {
+            this.fullRoots.set(root);
+        }
+
+        if (bottom) {
+            this.bottomRoots.set(root);
+        }
+
+        if (full && bottom) {
+            this.percolates = true;
+        }
+
+        if (size >= this.sizeCounts.length) {
+            this.sizeCounts = Arrays.copyOf(this.sizeCounts, Math.max(size + 1, this.sizeCounts.length * 2));
+        }
+
+        this.sizeCounts[siteSize]--;
+        this.sizeCounts[adjacentSize]--;
+        this.sizeCounts[size]++;
+        this.numberOfClusters--;
+        this.largestCluster = Math.max(this.largestCluster, size);
+        this.sumOfSquaredSizes += 2L * siteSize * adjacentSize;
+    }
+
     public boolean isOpen(int row, int col) {
         row -= 1;
         col -= 1;
@@ -98,7 +191,7 @@ public class Percolation {
             throw new IllegalArgumentException();
         }
 
-        return this.open[this.matrixToArrayIndex(row, col)];
+        return this.open.get(this.matrixToArrayIndex(row, col));
     }
 
     public boolean isFull(int row, int col) {
@@ -113,19 +206,73 @@ public class Percolation {
             return false;
         }
 
-        return this.quickUnionBackup.find(this.matrixToArrayIndex(row, col)) == this.quickUnionBackup.find(this.upVirtualNodeIndex);
+        return this.fullRoots.get(this.clusters.find(this.matrixToArrayIndex(row, col)));
+    }
+
+    // isFull for every site of the row, indexed by col - 1
+    public boolean[] isFullRow(int row) {
+        return this.isFullRegion(row, 1, row, this.n)[0];
+    }
+
+    // isFull for every site in rows [fromRow, toRow] and columns [fromCol, toCol], indexed by
+    // [row - fromRow][col - fromCol].
+    public boolean[][] isFullRegion(int fromRow, int fromCol, int toRow, int toCol) {
+        fromRow -= 1;
+        fromCol -= 1;
+        toRow -= 1;
+        toCol -= 1;
+
+        if (!this.checkParameters(fromRow) || !this.checkParameters(fromCol)
+                || !this.checkParameters(toRow) || !this.checkParameters(toCol)
+                || fromRow > toRow || fromCol > toCol) {
+            throw new IllegalArgumentException(String.format("Illegal region [%d,%d]-[%d,%d]", fromRow + 1, fromCol + 1, toRow + 1, toCol + 1));
+        }
+
+        boolean[][] full = new boolean[toRow - fromRow + 1][toCol - fromCol + 1];
+
+        for (int row = fromRow; row <= toRow; row++) {
+            boolean[] line = full[row - fromRow];
+
+            for (int col = fromCol; col <= toCol; col++) {
+                int index = this.matrixToArrayIndex(row, col);
+                line[col - fromCol] = this.open.get(index) && this.fullRoots.get(this.clusters.find(index));
+            }
+        }
+
+        return full;
     }
 
     public int numberOfOpenSites() {
         return this.openSites;
     }
 
-    public boolean percolates() {
+    // number of clusters of open sites
+    public int numberOfClusters() {
+        return this.numberOfClusters;
+    }
+
+    // number of open sites in the largest cluster, 0 if no site is open
+    public int largestClusterSize() {
+        return this.largestCluster;
+    }
+
+    // the number of clusters of every size s, indexed by s, from 0 up to largestClusterSize()
+    public int[] clusterSizeDistribution() {
+        return Arrays.copyOf(this.sizeCounts, this.largestCluster + 1);
+    }
+
+    // Mean size of the cluster an open site picked at random belongs to (the sum of the squared
+    // cluster sizes over the number of open sites), 0 if no site is open.
+    public double meanClusterSize() {
         if (this.openSites == 0) {
-            return false;
+            return 0;
         }
 
-        return this.quickUnion.find(upVirtualNodeIndex) == this.quickUnion.find(bottomVirtualNodeIndex);
+        return (double) this.sumOfSquaredSizes / this.openSites;
+    }
+
+    public boolean percolates() {
+        return this.percolates;
     }
 
     private int matrixToArrayIndex(int row, int col) {
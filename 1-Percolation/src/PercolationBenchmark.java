@@ -0,0 +1,201 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+// Throughput and allocation benchmarks for the percolation engines.
+// Every case is warmed up, then timed over a few iterations; the report gives operations per second
+// and bytes allocated per operation by all the threads of the JVM, so that the PercolationStats cases
+// include the allocations of the pool's workers.
+// Usage: PercolationBenchmark [sizes [densities [trials]]], e.g. PercolationBenchmark 100,1000,10000 0.3,0.593,0.8 64
+public class PercolationBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int QUERIES = 1 << 20;
+
+    // Keeps the JIT from dropping the benchmarked calls as dead code.
+    private static volatile long sink;
+
+    // The operations shared by the benchmarked engines.
+    private interface Grid {
+        void open(int row, int col);
+        boolean isFull(int row, int col);
+        boolean percolates();
+    }
+
+    private interface GridFactory {
+        Grid create(int n);
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = parseInts(args.length > 0 ? args[0] : "100,1000");
+        double[] densities = parseDoubles(args.length > 1 ? args[1] : "0.3,0.593,0.8");
+        int trials = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        String[] names = {"Percolation", "CompactPercolation"};
+        GridFactory[] factories = {PercolationBenchmark::percolation, PercolationBenchmark::compactPercolation};
+
+        StdOut.println(String.format("%-50s %15s %12s", "benchmark", "ops/s", "B/op"));
+
+        for (int n : sizes) {
+            SplittableRandom random = new SplittableRandom(n);
+            int[] sites = PercolationStats.identityPermutation(n);
+            shuffle(sites, random);
+
+            int[] queries = new int[QUERIES];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = random.nextInt(n * n);
+            }
+
+            for (int v = 0; v < names.length; v++) {
+                GridFactory factory = factories[v];
+
+                for (double density : densities) {
+                    int count = (int) (density * n * n);
+
+                    measure(String.format("%s.open n=%d p=%.3f", names[v], n, density), count, () -> {
+                        Grid grid = factory.create(n);
+                        for (int i = 0; i < count; i++) {
+                            grid.open(sites[i] / n + 1, sites[i] % n + 1);
+                        }
+                    });
+
+                    Grid grid = factory.create(n);
+                    for (int i = 0; i < count; i++) {
+                        grid.open(sites[i] / n + 1, sites[i] % n + 1);
+                    }
+
+                    measure(String.format("%s.isFull n=%d p=%.3f", names[v], n, density), QUERIES, () -> {
+                        long full = 0;
+                        for (int query : queries) {
+                            if (grid.isFull(query / n + 1, query % n + 1)) {
+                                full++;
+                            }
+                        }
+                        sink += full;
+                    });
+
+                    measure(String.format("%s.percolates n=%d p=%.3f", names[v], n, density), QUERIES, () -> {
+                        long percolating = 0;
+                        for (int i = 0; i < QUERIES; i++) {
+                            if (grid.percolates()) {
+                                percolating++;
+                            }
+                        }
+                        sink += percolating;
+                    });
+                }
+            }
+
+            for (PercolationStats.Sampling sampling : PercolationStats.Sampling.values()) {
+                measure(String.format("PercolationStats.%s n=%d", sampling, n), trials, () -> {
+                    PercolationStats stats = new PercolationStats(n, trials, n, ForkJoinPool.commonPool(), sampling);
+                    sink += Double.doubleToLongBits(stats.mean());
+                });
+            }
+        }
+    }
+
+    private static void measure(String name, long operations, Runnable benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            benchmark.run();
+        }
+
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            benchmark.run();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        bytes = allocatedBytes() - bytes;
+        double total = (double) operations * MEASURED_ITERATIONS;
+
+        StdOut.println(String.format("%-50s %15.1f %12.2f", name, total / (elapsed / 1e9), bytes / total));
+    }
+
+    // Bytes allocated so far by the live threads. A thread ending during a measure takes its count
+    // with it, but the common pool keeps its workers alive between the iterations of a case.
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            // -1 for a thread that ended after its id was taken
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+
+        return total;
+    }
+
+    private static Grid percolation(int n) {
+        Percolation p = new Percolation(n);
+        return new Grid() {
+            public void open(int row, int col) {
+                p.open(row, col);
+            }
+
+            public boolean isFull(int row, int col) {
+                return p.isFull(row, col);
+            }
+
+            public boolean percolates() {
+                return p.percolates();
+            }
+        };
+    }
+
+    private static Grid compactPercolation(int n) {
+        CompactPercolation p = new CompactPercolation(n);
+        return new Grid() {
+            public void open(int row, int col) {
+                p.open(row, col);
+            }
+
+            public boolean isFull(int row, int col) {
+                return p.isFull(row, col);
+            }
+
+            public boolean percolates() {
+                return p.percolates();
+            }
+        };
+    }
+
+    private static void shuffle(int[] a, SplittableRandom random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = a[i];
+            a[i] = a[j];
+            a[j] = swap;
+        }
+    }
+
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static double[] parseDoubles(String list) {
+        String[] parts = list.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+        }
+        return values;
+    }
+}
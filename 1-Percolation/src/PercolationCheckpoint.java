@@ -0,0 +1,117 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// State of a seeded PercolationStats run, saved between batches of trials.
+// Only the accumulated statistics and the number of completed trials are stored: the random stream
+// of every batch is derived from the seed, so the generator state follows from those.
+// Binary layout (big endian): magic, version, n, trials, completed, sampling, seed, count, mean, m2.
+public class PercolationCheckpoint {
+    private static final int MAGIC = 0x50434B50;
+    private static final int VERSION = 1;
+
+    private final int n;
+    private final int trials;
+    private final int completed;
+    private final PercolationStats.Sampling sampling;
+    private final long seed;
+    private final RunningStats stats;
+
+    public PercolationCheckpoint(int n, int trials, int completed, PercolationStats.Sampling sampling, long seed, RunningStats stats) {
+        if (n <= 0 || trials <= 0 || completed < 0 || completed > trials || sampling == null || stats == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.n = n;
+        this.trials = trials;
+        this.completed = completed;
+        this.sampling = sampling;
+        this.seed = seed;
+        this.stats = stats;
+    }
+
+    public int n() {
+        return this.n;
+    }
+
+    public int trials() {
+        return this.trials;
+    }
+
+    public int completed() {
+        return this.completed;
+    }
+
+    public PercolationStats.Sampling sampling() {
+        return this.sampling;
+    }
+
+    public long seed() {
+        return this.seed;
+    }
+
+    // a copy of the accumulated statistics
+    public RunningStats stats() {
+        return new RunningStats(this.stats.count(), this.stats.mean(), this.stats.m2());
+    }
+
+    public static PercolationCheckpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(String.format("%s is not a checkpoint file", file));
+            }
+
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported checkpoint version %d in %s", version, file));
+            }
+
+            int n = in.readInt();
+            int trials = in.readInt();
+            int completed = in.readInt();
+            int ordinal = in.readByte();
+            if (ordinal < 0 || ordinal >= PercolationStats.Sampling.values().length) {
+                throw new IOException(String.format("Unknown sampling %d in %s", ordinal, file));
+            }
+
+            PercolationStats.Sampling sampling = PercolationStats.Sampling.values()[ordinal];
+            long seed = in.readLong();
+            RunningStats stats = new RunningStats(in.readLong(), in.readDouble(), in.readDouble());
+
+            return new PercolationCheckpoint(n, trials, completed, sampling, seed, stats);
+        }
+    }
+
+    // Writes to a temporary file first and moves it over file, so a run killed while writing
+    // leaves the previous checkpoint intact.
+    public void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.n);
+            out.writeInt(this.trials);
+            out.writeInt(this.completed);
+            out.writeByte(this.sampling.ordinal());
+            out.writeLong(this.seed);
+            out.writeLong(this.stats.count());
+            out.writeDouble(this.stats.count() == 0 ? 0 : this.stats.mean());
+            out.writeDouble(this.stats.m2());
+        }
+
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -6,18 +6,47 @@
 
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 public class PercolationStats {
     private static final double CONFIDENCE_95 = 1.96;
-    private final double[] results;
+    // Trials sharing one random stream; also the smallest unit of work handed to a worker.
+    private static final int BLOCK_SIZE = 16;
+    // Blocks run between two checkpoints. Every batch gets the next stream split off the seeded root.
+    private static final int BATCH_BLOCKS = 64;
+    private static final int BATCH_SIZE = BLOCK_SIZE * BATCH_BLOCKS;
+    // Batches submitted ahead of the one being merged, so the workers never wait for the slowest
+    // block of a batch before starting on the next one.
+    private static final int BATCHES_IN_FLIGHT = 4;
+    private final RunningStats results;
+
+    // How a trial picks the next site to open.
+    public enum Sampling {
+        // Draw (row, col) uniformly, possibly hitting sites that are already open.
+        UNIFORM,
+        // Walk a lazily shuffled permutation of all the sites, so every draw opens a new site.
+        PERMUTATION
+    }
 
     public PercolationStats(int n, int trials) {
         if (n <= 0 || trials <= 0) {
             throw new IllegalArgumentException();
         }
 
-        this.results = new double[trials];
+        this.results = new RunningStats();
 
         for (int i = 0; i < trials; i++) {
             Percolation p = new Percolation(n);
@@ -28,33 +57,312 @@ public class PercolationStats {
                 p.open(a, b);
             }
 
-            this.results[i] = (double) p.numberOfOpenSites() / (n*n);
+            this.results.add((double) p.numberOfOpenSites() / (n*n));
+        }
+
+    }
+
+    // Runs the trials in parallel on the given pool. Every block of trials draws from its own
+    // stream, split off a generator seeded with seed, so the results only depend on n, trials and seed.
+    // If checkpoint is not null the accumulated results are saved there after every batch of trials,
+    // and a run finding a checkpoint of the same n, trials, seed and sampling resumes from it.
+    // A few batches run at once; the streams are split off in batch order and the results merged
+    // in batch order whatever finishes first, so neither depends on how the batches overlap.
+    // If progress is not null it gets the statistics of the trials merged so far after every batch,
+    // so long runs can be watched (or their confidence interval checked) before they complete.
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, Sampling sampling, Path checkpoint, Consumer<PercolationStats> progress) {
+        if (n <= 0 || trials <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (pool == null || sampling == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        int completed = 0;
+        RunningStats stats = new RunningStats();
+
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            PercolationCheckpoint saved = readCheckpoint(checkpoint);
+
+            if (saved.n() != n || saved.trials() != trials || saved.seed() != seed || saved.sampling() != sampling) {
+                throw new IllegalArgumentException(String.format("Checkpoint %s belongs to a different run", checkpoint));
+            }
+
+            completed = saved.completed();
+            stats = saved.stats();
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+
+        // Replays the splits of the batches already done.
+        for (int i = 0; i < completed / BATCH_SIZE; i++) {
+            root.split();
+        }
+
+        ArrayDeque<ForkJoinTask<RunningStats>> inFlight = new ArrayDeque<>();
+        int submitted = completed;
+
+        while (completed < trials) {
+            while (submitted < trials && inFlight.size() < BATCHES_IN_FLIGHT) {
+                int batch = Math.min(BATCH_SIZE, trials - submitted);
+                int blocks = (batch + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+                inFlight.add(pool.submit(new TrialTask(n, batch, sampling, root.split(), 0, blocks)));
+                submitted += batch;
+            }
+
+            // A checkpoint only counts merged batches: the ones still running are redone on resume.
+            stats.merge(inFlight.remove().join());
+            completed += Math.min(BATCH_SIZE, trials - completed);
+
+            if (checkpoint != null) {
+                writeCheckpoint(checkpoint, new PercolationCheckpoint(n, trials, completed, sampling, seed, stats));
+            }
+
+            if (progress != null) {
+                progress.accept(new PercolationStats(new RunningStats(stats.count(), stats.mean(), stats.m2())));
+            }
+        }
+
+        this.results = stats;
+    }
+
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, Sampling sampling, Path checkpoint) {
+        this(n, trials, seed, pool, sampling, checkpoint, null);
+    }
+
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, Sampling sampling) {
+        this(n, trials, seed, pool, sampling, null);
+    }
+
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this(n, trials, seed, pool, Sampling.UNIFORM);
+    }
+
+    public PercolationStats(int n, int trials, long seed) {
+        this(n, trials, seed, ForkJoinPool.commonPool());
+    }
+
+    private PercolationStats(RunningStats results) {
+        this.results = results;
+    }
+
+    // Merges the checkpoints of runs sharded across processes or machines. Every shard must use the
+    // same n and sampling and a different seed; partially completed shards contribute the trials they finished.
+    public static PercolationStats fromCheckpoints(Path... checkpoints) {
+        if (checkpoints.length == 0) {
+            throw new IllegalArgumentException("Expected at least a checkpoint");
+        }
+
+        RunningStats merged = new RunningStats();
+        Set<Long> seeds = new HashSet<>();
+        int n = -1;
+        Sampling sampling = null;
+
+        for (Path checkpoint : checkpoints) {
+            PercolationCheckpoint saved = readCheckpoint(checkpoint);
+
+            if (n != -1 && saved.n() != n) {
+                throw new IllegalArgumentException(String.format("Expected n = %d, but %s has n = %d", n, checkpoint, saved.n()));
+            }
+
+            if (sampling != null && saved.sampling() != sampling) {
+                throw new IllegalArgumentException(String.format("Expected sampling %s, but %s has %s", sampling, checkpoint, saved.sampling()));
+            }
+
+            if (!seeds.add(saved.seed())) {
+                throw new IllegalArgumentException(String.format("Seed %d of %s is already merged", saved.seed(), checkpoint));
+            }
+
+            n = saved.n();
+            sampling = saved.sampling();
+            merged.merge(saved.stats());
         }
 
+        return new PercolationStats(merged);
+    }
+
+    // number of trials the statistics are computed on
+    public long trials() {
+        return this.results.count();
     }
 
     public double mean() {
-        return StdStats.mean(this.results);
+        return this.results.mean();
     }
 
     public double stddev() {
-        return StdStats.stddev(this.results);
+        return this.results.stddev();
     }
 
     public double confidenceLo() {
-        return this.mean() - ((CONFIDENCE_95 * this.stddev()) / Math.sqrt(this.results.length));
+        return this.mean() - ((CONFIDENCE_95 * this.stddev()) / Math.sqrt(this.results.count()));
     }
 
     public double confidenceHi() {
-        return this.mean() + ((CONFIDENCE_95 * this.stddev()) / Math.sqrt(this.results.length));
+        return this.mean() + ((CONFIDENCE_95 * this.stddev()) / Math.sqrt(this.results.count()));
+    }
+
+    private static PercolationCheckpoint readCheckpoint(Path file) {
+        try {
+            return PercolationCheckpoint.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCheckpoint(Path file, PercolationCheckpoint checkpoint) {
+        try {
+            checkpoint.write(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double runTrial(int n, SplittableRandom random) {
+        Percolation p = new Percolation(n);
+
+        while (!p.percolates()) {
+            int a = random.nextInt(1, n + 1);
+            int b = random.nextInt(1, n + 1);
+            p.open(a, b);
+        }
+
+        return (double) p.numberOfOpenSites() / (n*n);
+    }
+
+    private static double runTrial(int n, SplittableRandom random, int[] sites) {
+        Percolation p = new Percolation(n);
+        return (double) openUntilPercolates(p, n, sites, random) / (n*n);
+    }
+
+    // Opens the sites of p in the order of a Fisher-Yates shuffle of sites, drawn lazily one swap
+    // at a time, until p percolates. Returns the number of opened sites.
+    // sites must hold a permutation of [0, n*n) and still holds one on return, so the same array can
+    // be handed to the next trial without being reset.
+    static int openUntilPercolates(Percolation p, int n, int[] sites, SplittableRandom random) {
+        int opened = 0;
+
+        while (!p.percolates()) {
+            int j = random.nextInt(opened, sites.length);
+            int site = sites[j];
+            sites[j] = sites[opened];
+            sites[opened] = site;
+            opened++;
+
+            p.open(site / n + 1, site % n + 1);
+        }
+
+        return opened;
     }
 
+    static int[] identityPermutation(int n) {
+        int[] sites = new int[n * n];
+
+        for (int i = 0; i < sites.length; i++) {
+            sites[i] = i;
+        }
+
+        return sites;
+    }
+
+    // Runs the blocks [lo, hi) and returns their statistics, merged in block order so that the
+    // floating point result doesn't depend on which worker finishes first.
+    // The left half always gets a stream split off this task's one and the right half keeps it: the
+    // task tree only depends on the number of blocks, so neither does the stream of a block.
+    private static class TrialTask extends RecursiveTask<RunningStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+        private final int trials;
+        private final Sampling sampling;
+        private final SplittableRandom random;
+        private final int lo;
+        private final int hi;
+
+        public TrialTask(int n, int trials, Sampling sampling, SplittableRandom random, int lo, int hi) {
+            this.n = n;
+            this.trials = trials;
+            this.sampling = sampling;
+            this.random = random;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected RunningStats compute() {
+            if (this.hi - this.lo == 1) {
+                int from = this.lo * BLOCK_SIZE;
+                int to = Math.min(from + BLOCK_SIZE, this.trials);
+                RunningStats stats = new RunningStats();
+
+                if (this.sampling == Sampling.PERMUTATION) {
+                    int[] sites = identityPermutation(this.n);
+
+                    for (int i = from; i < to; i++) {
+                        stats.add(runTrial(this.n, this.random, sites));
+                    }
+                    return stats;
+                }
+
+                for (int i = from; i < to; i++) {
+                    stats.add(runTrial(this.n, this.random));
+                }
+                return stats;
+            }
+
+            int mid = (this.lo + this.hi) >>> 1;
+            TrialTask left = new TrialTask(this.n, this.trials, this.sampling, this.random.split(), this.lo, mid);
+            TrialTask right = new TrialTask(this.n, this.trials, this.sampling, this.random, mid, this.hi);
+
+            left.fork();
+            RunningStats stats = right.compute();
+            RunningStats merged = left.join();
+            merged.merge(stats);
+            return merged;
+        }
+    }
+
+    // Usage:
+    //     PercolationStats n trials [seed [sampling [checkpoint]]]
+    //     PercolationStats merge checkpoint...
     public static void main(String[] args) {
+        if (args[0].equals("merge")) {
+            Path[] checkpoints = new Path[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                checkpoints[i - 1] = Paths.get(args[i]);
+            }
+
+            print(PercolationStats.fromCheckpoints(checkpoints));
+            return;
+        }
+
         int n = Integer.parseInt(args[0]);
         int t = Integer.parseInt(args[1]);
 
-        PercolationStats ps = new PercolationStats(n, t);
+        // An optional seed switches to the parallel, reproducible engine, optionally followed by the
+        // sampling mode and by a checkpoint file to save to and resume from. Checkpointed runs are the
+        // long ones, so they also report their progress on standard error after every batch.
+        PercolationStats ps;
+        if (args.length > 4) {
+            Sampling sampling = Sampling.valueOf(args[3].toUpperCase());
+            ps = new PercolationStats(n, t, Long.parseLong(args[2]), ForkJoinPool.commonPool(), sampling, Paths.get(args[4]),
+                    partial -> System.err.println(String.format("%d/%d trials, mean = %f, 95%% confidence interval = [%f, %f]",
+                            partial.trials(), t, partial.mean(), partial.confidenceLo(), partial.confidenceHi())));
+        } else if (args.length > 3) {
+            Sampling sampling = Sampling.valueOf(args[3].toUpperCase());
+            ps = new PercolationStats(n, t, Long.parseLong(args[2]), ForkJoinPool.commonPool(), sampling);
+        } else if (args.length > 2) {
+            ps = new PercolationStats(n, t, Long.parseLong(args[2]));
+        } else {
+            ps = new PercolationStats(n, t);
+        }
+
+        print(ps);
+    }
 
+    private static void print(PercolationStats ps) {
         StdOut.println("mean = " + String.format("%f", ps.mean()));
         StdOut.println("stddev = " + String.format("%f", ps.stddev()));
         StdOut.println("95% confidence interval = " + String.format("[%f, %f]", ps.confidenceLo(), ps.confidenceHi()));
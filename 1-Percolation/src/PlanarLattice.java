@@ -0,0 +1,90 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// n-by-n two dimensional lattice, percolating from row 1 to row n.
+public class PlanarLattice implements Lattice {
+    public enum Neighbourhood {
+        // up, down, left and right
+        SQUARE,
+        // SQUARE plus the four diagonals
+        MOORE,
+        // SQUARE plus the up-right and down-left diagonals: a triangular lattice drawn on a sheared grid
+        TRIANGULAR
+    }
+
+    private final int n;
+    // width of a row, ghost columns included
+    private final int width;
+    private final int[] offsets;
+
+    public PlanarLattice(int n, Neighbourhood neighbourhood) {
+        if (n <= 0 || (long) (n + 2) * (n + 2) > Integer.MAX_VALUE || neighbourhood == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.n = n;
+        this.width = n + 2;
+
+        int w = this.width;
+        switch (neighbourhood) {
+            case MOORE:
+                this.offsets = new int[] {-w, -1, -w - 1, -w + 1, w, 1, w + 1, w - 1};
+                break;
+            case TRIANGULAR:
+                this.offsets = new int[] {-w, -1, -w + 1, w, 1, w - 1};
+                break;
+            default:
+                this.offsets = new int[] {-w, -1, w, 1};
+        }
+    }
+
+    // index of the site at (row, col), both in [1, n]
+    public int index(int row, int col) {
+        if (row < 1 || row > this.n || col < 1 || col > this.n) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was [%d,%d]", this.n, row, col));
+        }
+
+        // Ghost row 0 and ghost column 0 make the 1-based coordinates map directly.
+        return row * this.width + col;
+    }
+
+    @Override
+    public int size() {
+        return this.width * this.width;
+    }
+
+    @Override
+    public boolean contains(int index) {
+        int row = index / this.width;
+        int col = index - row * this.width;
+        return index >= 0 && row >= 1 && row <= this.n && col >= 1 && col <= this.n;
+    }
+
+    @Override
+    public int[] offsets() {
+        return this.offsets.clone();
+    }
+
+    @Override
+    public int[] top() {
+        return this.row(1);
+    }
+
+    @Override
+    public int[] bottom() {
+        return this.row(this.n);
+    }
+
+    private int[] row(int row) {
+        int[] sites = new int[this.n];
+
+        for (int col = 1; col <= this.n; col++) {
+            sites[col - 1] = this.index(row, col);
+        }
+
+        return sites;
+    }
+}
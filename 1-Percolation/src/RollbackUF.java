@@ -0,0 +1,84 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Union-find over [0, n) whose unions can be undone in LIFO order.
+// Union by size without path compression keeps every find O(log n) and every union a single
+// parent change, which is what makes rolling back a union O(1).
+public class RollbackUF {
+    private final int[] parent;
+    private final int[] size;
+    // roots attached under another root by the successful unions, oldest first
+    private final int[] history;
+    private int unions;
+
+    public RollbackUF(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.parent = new int[n];
+        this.size = new int[n];
+        this.history = new int[Math.max(0, n - 1)];
+        this.unions = 0;
+
+        for (int i = 0; i < n; i++) {
+            this.parent[i] = i;
+            this.size[i] = 1;
+        }
+    }
+
+    public int find(int p) {
+        while (p != this.parent[p]) {
+            p = this.parent[p];
+        }
+
+        return p;
+    }
+
+    public boolean connected(int p, int q) {
+        return this.find(p) == this.find(q);
+    }
+
+    // returns false if p and q were already connected
+    public boolean union(int p, int q) {
+        int rootP = this.find(p);
+        int rootQ = this.find(q);
+
+        if (rootP == rootQ) {
+            return false;
+        }
+
+        if (this.size[rootP] < this.size[rootQ]) {
+            int swap = rootP;
+            rootP = rootQ;
+            rootQ = swap;
+        }
+
+        this.parent[rootQ] = rootP;
+        this.size[rootP] += this.size[rootQ];
+        this.history[this.unions++] = rootQ;
+        return true;
+    }
+
+    // a point the structure can later be rolled back to
+    public int snapshot() {
+        return this.unions;
+    }
+
+    // undoes every union made after snapshot was taken
+    public void rollback(int snapshot) {
+        if (snapshot < 0 || snapshot > this.unions) {
+            throw new IllegalArgumentException(String.format("Expected <= %d, but was %d", this.unions, snapshot));
+        }
+
+        while (this.unions > snapshot) {
+            int child = this.history[--this.unions];
+            int root = this.parent[child];
+            this.size[root] -= this.size[child];
+            this.parent[child] = child;
+        }
+    }
+}
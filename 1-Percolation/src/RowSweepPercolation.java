@@ -0,0 +1,302 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// One-shot percolation check of a fully specified grid, fed one row at a time (Hoshen-Kopelman).
+// Only the labels of the previous and of the current row are kept: the open sites of the current
+// row are labelled, merged with their left neighbour and with the cluster above them through a
+// union-find over the 2 * cols labels of the two rows, and then renumbered into [0, cols) for the
+// next row. Memory is O(cols) whatever the number of rows, so grids streamed from disk can be far
+// larger than a Percolation could hold.
+// The per-row resets are plain array fills the JIT can vectorize; the labelling loop itself only
+// branches on whether a site and its neighbours are open.
+public class RowSweepPercolation {
+    private final int cols;
+    private int rows;
+    // whether some site of the last row is connected to the first row
+    private boolean anyFull;
+
+    // labels of the previous and current row in [0, cols), -1 for closed sites
+    private int[] previous;
+    private int[] current;
+    // whether a label of the previous row is connected to the first row
+    private boolean[] previousFull;
+    private boolean[] currentFull;
+
+    // union-find over the previous row's labels, [0, cols), and the current row's, [cols, 2 * cols)
+    private final int[] parent;
+    private final boolean[] rootFull;
+    private final int[] relabel;
+
+    public RowSweepPercolation(int cols) {
+        if (cols <= 0 || cols > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException();
+        }
+
+        this.cols = cols;
+        this.rows = 0;
+        this.anyFull = false;
+        this.previous = new int[cols];
+        this.current = new int[cols];
+        this.previousFull = new boolean[cols];
+        this.currentFull = new boolean[cols];
+        this.parent = new int[2 * cols];
+        this.rootFull = new boolean[2 * cols];
+        this.relabel = new int[2 * cols];
+
+        Arrays.fill(this.previous, -1);
+    }
+
+    // adds the next row, open[col] telling whether the site in that column is open
+    public void addRow(boolean[] open) {
+        if (open == null || open.length != this.cols) {
+            throw new IllegalArgumentException(String.format("Expected a row of %d sites", this.cols));
+        }
+
+        this.startRow();
+
+        for (int col = 0; col < this.cols; col++) {
+            this.label(col, open[col]);
+        }
+
+        this.finishRow();
+    }
+
+    // adds the next row, packed 64 sites to a long: the site in column col is open if bit
+    // col % 64 of words[col / 64] is set
+    public void addRow(long[] words) {
+        if (words == null || words.length != (this.cols + 63) >>> 6) {
+            throw new IllegalArgumentException(String.format("Expected a row of %d words", (this.cols + 63) >>> 6));
+        }
+
+        this.startRow();
+
+        for (int col = 0; col < this.cols; col++) {
+            this.label(col, (words[col >>> 6] & (1L << col)) != 0);
+        }
+
+        this.finishRow();
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    // whether the rows added so far percolate, from the first row to the last one added
+    public boolean percolates() {
+        return this.anyFull;
+    }
+
+    private void startRow() {
+        this.rows++;
+
+        for (int i = 0; i < 2 * this.cols; i++) {
+            this.parent[i] = i;
+            this.relabel[i] = -1;
+        }
+
+        System.arraycopy(this.previousFull, 0, this.rootFull, 0, this.cols);
+        // Every open site of the first row is full.
+        Arrays.fill(this.rootFull, this.cols, 2 * this.cols, this.rows == 1);
+    }
+
+    private void label(int col, boolean open) {
+        if (!open) {
+            this.current[col] = -1;
+            return;
+        }
+
+        int label = this.cols + col;
+        this.current[col] = label;
+
+        if (col > 0 && this.current[col - 1] >= 0) {
+            this.union(label, this.current[col - 1]);
+        }
+
+        if (this.previous[col] >= 0) {
+            this.union(label, this.previous[col]);
+        }
+    }
+
+    // renumbers the current row's clusters into [0, cols) and makes it the previous row
+    private void finishRow() {
+        int next = 0;
+        boolean full = false;
+
+        for (int col = 0; col < this.cols; col++) {
+            if (this.current[col] < 0) {
+                continue;
+            }
+
+            int root = this.find(this.current[col]);
+
+            if (this.relabel[root] < 0) {
+                this.relabel[root] = next;
+                this.currentFull[next] = this.rootFull[root];
+                next++;
+            }
+
+            this.current[col] = this.relabel[root];
+            full |= this.rootFull[root];
+        }
+
+        Arrays.fill(this.currentFull, next, this.cols, false);
+        this.anyFull = full;
+
+        int[] labels = this.previous;
+        this.previous = this.current;
+        this.current = labels;
+
+        boolean[] flags = this.previousFull;
+        this.previousFull = this.currentFull;
+        this.currentFull = flags;
+    }
+
+    private int find(int p) {
+        while (p != this.parent[p]) {
+            this.parent[p] = this.parent[this.parent[p]];
+            p = this.parent[p];
+        }
+
+        return p;
+    }
+
+    private void union(int p, int q) {
+        int rootP = this.find(p);
+        int rootQ = this.find(q);
+
+        if (rootP != rootQ) {
+            this.parent[rootP] = rootQ;
+            this.rootFull[rootQ] |= this.rootFull[rootP];
+        }
+    }
+
+    // whether grid, indexed by [row][col], percolates from its first to its last row
+    public static boolean percolates(boolean[][] grid) {
+        if (grid == null || grid.length == 0) {
+            throw new IllegalArgumentException("Illegal empty grid");
+        }
+
+        RowSweepPercolation sweep = new RowSweepPercolation(grid[0].length);
+
+        for (boolean[] row : grid) {
+            sweep.addRow(row);
+
+            // Once no site of a row is full, no site below it can be.
+            if (!sweep.percolates()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Reads a packed grid: rows and cols (big endian ints), then every row as (cols + 7) / 8
+    // bytes, the site in column col being open if bit col % 8 of byte col / 8 is set.
+    // Stops reading as soon as the answer is known.
+    public static boolean percolates(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        int rows = data.readInt();
+        int cols = data.readInt();
+
+        if (rows <= 0) {
+            throw new IOException("Illegal empty grid");
+        }
+
+        RowSweepPercolation sweep = new RowSweepPercolation(cols);
+        byte[] bytes = new byte[(cols + 7) >>> 3];
+        long[] words = new long[(cols + 63) >>> 6];
+
+        for (int row = 0; row < rows; row++) {
+            data.readFully(bytes);
+            Arrays.fill(words, 0);
+
+            for (int i = 0; i < bytes.length; i++) {
+                words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+            }
+
+            sweep.addRow(words);
+
+            if (!sweep.percolates()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Writes a grid in the format read by percolates(InputStream).
+    public static void write(OutputStream out, boolean[][] grid) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        int cols = grid[0].length;
+        data.writeInt(grid.length);
+        data.writeInt(cols);
+
+        byte[] bytes = new byte[(cols + 7) >>> 3];
+        for (boolean[] row : grid) {
+            Arrays.fill(bytes, (byte) 0);
+
+            for (int col = 0; col < cols; col++) {
+                if (row[col]) {
+                    bytes[col >>> 3] |= (byte) (1 << (col & 7));
+                }
+            }
+
+            data.write(bytes);
+        }
+
+        data.flush();
+    }
+
+    // Usage: RowSweepPercolation grid-file, or RowSweepPercolation with no argument to check the
+    // sweep against Percolation on random grids.
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+                StdOut.println(percolates(in) ? "percolates" : "does not percolate");
+            }
+            return;
+        }
+
+        SplittableRandom random = new SplittableRandom(0);
+
+        for (int round = 0; round < 2000; round++) {
+            int n = random.nextInt(1, 40);
+            double p = 0.45 + 0.3 * random.nextDouble();
+            boolean[][] grid = new boolean[n][n];
+            Percolation percolation = new Percolation(n);
+
+            for (int row = 0; row < n; row++) {
+                for (int col = 0; col < n; col++) {
+                    grid[row][col] = random.nextDouble() < p;
+                    if (grid[row][col]) {
+                        percolation.open(row + 1, col + 1);
+                    }
+                }
+            }
+
+            if (percolates(grid) != percolation.percolates()) {
+                throw new IllegalStateException(String.format("Mismatch on n = %d", n));
+            }
+        }
+
+        // Expected output: OK
+        StdOut.println("OK");
+    }
+}
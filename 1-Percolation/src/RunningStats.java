@@ -0,0 +1,76 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Streaming mean and variance (Welford's algorithm) in O(1) memory.
+// Two accumulators over disjoint samples can be merged (Chan et al.), which is how parallel
+// workers combine their partial results.
+public class RunningStats {
+    private long count;
+    private double mean;
+    // sum of squared differences from the current mean
+    private double m2;
+
+    public RunningStats() {
+        this.count = 0;
+        this.mean = 0;
+        this.m2 = 0;
+    }
+
+    // restores an accumulator from the values returned by count(), mean() and m2()
+    public RunningStats(long count, double mean, double m2) {
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.count = count;
+        this.mean = count == 0 ? 0 : mean;
+        this.m2 = count == 0 ? 0 : m2;
+    }
+
+    public void add(double x) {
+        this.count++;
+        double delta = x - this.mean;
+        this.mean += delta / this.count;
+        this.m2 += delta * (x - this.mean);
+    }
+
+    // adds every sample accumulated by other to this
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        long total = this.count + other.count;
+        double delta = other.mean - this.mean;
+
+        this.m2 += other.m2 + delta * delta * ((double) this.count * other.count / total);
+        this.mean += delta * other.count / total;
+        this.count = total;
+    }
+
+    public long count() {
+        return this.count;
+    }
+
+    // NaN when no sample has been added
+    public double mean() {
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    // sample variance, NaN with fewer than two samples
+    public double variance() {
+        return this.count < 2 ? Double.NaN : this.m2 / (this.count - 1);
+    }
+
+    // sum of squared differences from the mean, the state needed besides count and mean
+    public double m2() {
+        return this.m2;
+    }
+
+    public double stddev() {
+        return Math.sqrt(this.variance());
+    }
+}
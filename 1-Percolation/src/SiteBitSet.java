@@ -0,0 +1,87 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+// Fixed-size set of site indices in [0, size), packed 64 to a long.
+// Takes one bit per site instead of the byte a boolean[] needs.
+public class SiteBitSet {
+    private final long[] words;
+    private final int size;
+
+    public SiteBitSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean get(int index) {
+        // Shifts only use the low 6 bits of index, so no masking is needed.
+        return (this.words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // sets index, returning false if it was already set
+    public boolean set(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        long previous = this.words[word];
+        this.words[word] = previous | mask;
+        return (previous & mask) == 0;
+    }
+
+    // clears index, returning false if it wasn't set
+    public boolean clear(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        long previous = this.words[word];
+        this.words[word] = previous & ~mask;
+        return (previous & mask) != 0;
+    }
+
+    // number of set indices
+    public int cardinality() {
+        int count = 0;
+
+        for (long word : this.words) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    // number of set indices in [from, to)
+    public int cardinality(int from, int to) {
+        if (from < 0 || to > this.size || from > to) {
+            throw new IllegalArgumentException(String.format("Illegal range [%d,%d)", from, to));
+        }
+
+        if (from == to) {
+            return 0;
+        }
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (first == last) {
+            return Long.bitCount(this.words[first] & firstMask & lastMask);
+        }
+
+        int count = Long.bitCount(this.words[first] & firstMask);
+
+        for (int i = first + 1; i < last; i++) {
+            count += Long.bitCount(this.words[i]);
+        }
+
+        return count + Long.bitCount(this.words[last] & lastMask);
+    }
+}
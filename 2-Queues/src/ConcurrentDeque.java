@@ -0,0 +1,165 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thread-safe Deque for any number of producers and consumers at both ends, without locks.
+// The items live in a ConcurrentLinkedDeque, whose nodes are linked and unlinked with CAS, so
+// threads never block each other and no call needs an outside synchronized block.
+// Under concurrent use every method is still atomic, but:
+// - size() reads a LongAdder updated right after each add and remove, so it can briefly lag
+//   behind the items actually in the deque. The adder spreads its updates over per-thread cells
+//   instead of a single shared counter, so counting doesn't add a contended CAS to every call;
+//   the price is that reading it sums the cells. isEmpty() asks the deque itself, so it never
+//   misses an item whose add has returned;
+// - iteration is weakly consistent: it never throws ConcurrentModificationException and sees every
+//   item present for the whole iteration exactly once, while items added or removed during the
+//   iteration may or may not be seen.
+public class ConcurrentDeque<Item> implements Iterable<Item> {
+    private final ConcurrentLinkedDeque<Item> items;
+    private final LongAdder size;
+
+    // construct an empty deque
+    public ConcurrentDeque() {
+        this.items = new ConcurrentLinkedDeque<>();
+        this.size = new LongAdder();
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.items.isEmpty();
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return (int) Math.max(0, this.size.sum());
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        this.items.addFirst(item);
+        this.size.increment();
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        this.items.addLast(item);
+        this.size.increment();
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        Item item = this.items.pollFirst();
+
+        if (item == null) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        this.size.decrement();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        Item item = this.items.pollLast();
+
+        if (item == null) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        this.size.decrement();
+        return item;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new ConcurrentDequeIterator(this.items.iterator());
+    }
+
+    private class ConcurrentDequeIterator implements Iterator<Item> {
+        private final Iterator<Item> iterator;
+
+        public ConcurrentDequeIterator(Iterator<Item> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public Item next() {
+            return this.iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        ConcurrentDeque<Integer> deque = new ConcurrentDeque<>();
+        AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+        Thread[] workers = new Thread[threads];
+
+        // Every worker pushes its own items at both ends and pops from both ends.
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if ((i & 1) == 0) {
+                        deque.addFirst(offset + i);
+                    } else {
+                        deque.addLast(offset + i);
+                    }
+
+                    if ((i & 3) == 3) {
+                        try {
+                            seen.incrementAndGet((i & 4) == 0 ? deque.removeFirst() : deque.removeLast());
+                        } catch (NoSuchElementException e) {
+                            // Another worker emptied the deque first.
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        while (!deque.isEmpty()) {
+            seen.incrementAndGet(deque.removeFirst());
+        }
+
+        for (int i = 0; i < seen.length(); i++) {
+            if (seen.get(i) != 1) {
+                throw new IllegalStateException(String.format("Item %d removed %d times", i, seen.get(i)));
+            }
+        }
+
+        // Expected output: 0, true
+        System.out.printf("%d, %b\n", deque.size(), deque.isEmpty());
+    }
+}
@@ -0,0 +1,270 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Thread-safe RandomizedQueue striped into several RandomizedQueues, each behind its own lock.
+// A thread enqueues into the stripe its id hashes to, so producers on different threads rarely
+// share a lock. dequeue and sample pick a stripe with probability proportional to its size and
+// then an item uniformly inside it, so every item is (up to the sizes changing concurrently) as
+// likely as any other; when the picked stripe has been emptied in the meantime, the next non-empty
+// stripe is used instead (work stealing).
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+    // Ints between the size counters of two stripes: 64 bytes, a cache line on common hardware, so
+    // producers updating their own stripe's counter don't invalidate each other's line.
+    private static final int PADDING = 16;
+
+    private final RandomizedQueue<Item>[] stripes;
+    // number of items in every stripe at sizeIndex(stripe), only updated while holding the
+    // stripe's lock
+    private final AtomicIntegerArray sizes;
+    private final int mask;
+
+    // construct an empty queue with a stripe per available processor
+    public ConcurrentRandomizedQueue() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // construct an empty queue with at least the given number of stripes (rounded up to a power of two)
+    @SuppressWarnings("unchecked")
+    public ConcurrentRandomizedQueue(int stripes) {
+        if (stripes <= 0 || stripes > 1 << 16) {
+            throw new IllegalArgumentException();
+        }
+
+        int count = Integer.highestOneBit(stripes);
+        if (count < stripes) {
+            count *= 2;
+        }
+
+        // Every stripe draws from its own generator, so stripes never contend on one.
+        SplittableRandom root = new SplittableRandom();
+        this.stripes = (RandomizedQueue<Item>[]) new RandomizedQueue<?>[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new RandomizedQueue<>(root.split());
+        }
+
+        this.sizes = new AtomicIntegerArray((count + 1) * PADDING);
+        this.mask = count - 1;
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        int size = 0;
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            size += this.sizes.get(sizeIndex(i));
+        }
+
+        return size;
+    }
+
+    // add the item to the calling thread's stripe
+    public void enqueue(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+
+        int index = this.localStripe();
+        RandomizedQueue<Item> stripe = this.stripes[index];
+
+        synchronized (stripe) {
+            stripe.enqueue(item);
+            this.sizes.incrementAndGet(sizeIndex(index));
+        }
+    }
+
+    // remove and return a random item
+    public Item dequeue() {
+        int first = this.pickStripe();
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            int index = (first + i) & this.mask;
+            RandomizedQueue<Item> stripe = this.stripes[index];
+
+            synchronized (stripe) {
+                if (!stripe.isEmpty()) {
+                    this.sizes.decrementAndGet(sizeIndex(index));
+                    return stripe.dequeue();
+                }
+            }
+        }
+
+        throw new NoSuchElementException();
+    }
+
+    // return a random item (but do not remove it)
+    public Item sample() {
+        int first = this.pickStripe();
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            RandomizedQueue<Item> stripe = this.stripes[(first + i) & this.mask];
+
+            synchronized (stripe) {
+                if (!stripe.isEmpty()) {
+                    return stripe.sample();
+                }
+            }
+        }
+
+        throw new NoSuchElementException();
+    }
+
+    // Returns an iterator over a snapshot of the items in random order. Every stripe is copied
+    // while holding its lock, one stripe at a time, so the snapshot is weakly consistent: items
+    // added or removed while it is taken may or may not be in it.
+    @Override
+    public Iterator<Item> iterator() {
+        List<Item> snapshot = new ArrayList<>();
+
+        for (RandomizedQueue<Item> stripe : this.stripes) {
+            synchronized (stripe) {
+                for (Item item : stripe) {
+                    snapshot.add(item);
+                }
+            }
+        }
+
+        // The stripes come out one after the other, so the whole snapshot still needs a shuffle.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = snapshot.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            snapshot.set(j, snapshot.set(i, snapshot.get(j)));
+        }
+
+        Iterator<Item> iterator = snapshot.iterator();
+        return new Iterator<Item>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private int localStripe() {
+        // Fibonacci hashing spreads consecutive thread ids over the stripes.
+        long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (id >>> 32) & this.mask;
+    }
+
+    // A stripe picked with probability proportional to its size, or a random one if all look empty.
+    // Takes a single pass over the counters: the i-th non-empty stripe replaces the pick so far with
+    // probability size / (total of the sizes seen so far), which leaves every stripe picked with
+    // probability proportional to its size.
+    private int pickStripe() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int picked = -1;
+        int total = 0;
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            int size = this.sizes.get(sizeIndex(i));
+
+            if (size > 0) {
+                total += size;
+                if (random.nextInt(total) < size) {
+                    picked = i;
+                }
+            }
+        }
+
+        return picked == -1 ? random.nextInt(this.stripes.length) : picked;
+    }
+
+    private static int sizeIndex(int stripe) {
+        return (stripe + 1) * PADDING;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<>(threads);
+        AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+        Thread[] workers = new Thread[threads];
+
+        // Producers and consumers at once: every worker enqueues its own items and dequeues
+        // half as many, from any stripe.
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.enqueue(offset + i);
+
+                    if ((i & 1) == 1) {
+                        try {
+                            seen.incrementAndGet(queue.dequeue());
+                        } catch (NoSuchElementException e) {
+                            // Other workers emptied the queue first.
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        while (!queue.isEmpty()) {
+            seen.incrementAndGet(queue.dequeue());
+        }
+
+        for (int i = 0; i < seen.length(); i++) {
+            if (seen.get(i) != 1) {
+                throw new IllegalStateException(String.format("Item %d removed %d times", i, seen.get(i)));
+            }
+        }
+
+        // Uniformity: the main thread fills a single stripe with 0..9 and another thread adds
+        // 10..19 to its own; each of the 20 items should come out first about 5% of the time.
+        int rounds = 2000;
+        int[] firsts = new int[20];
+        for (int round = 0; round < rounds; round++) {
+            ConcurrentRandomizedQueue<Integer> small = new ConcurrentRandomizedQueue<>(4);
+            for (int i = 0; i < 10; i++) {
+                small.enqueue(i);
+            }
+            Thread producer = new Thread(() -> {
+                for (int i = 10; i < 20; i++) {
+                    small.enqueue(i);
+                }
+            });
+            producer.start();
+            producer.join();
+            firsts[small.dequeue()]++;
+        }
+
+        double worst = 0;
+        for (int count : firsts) {
+            worst = Math.max(worst, Math.abs((double) count / rounds - 0.05));
+        }
+
+        // Expected output: 0, true, and a deviation from 0.05 of about 0.01
+        System.out.printf("%d, %b, %.3f\n", queue.size(), queue.isEmpty(), worst);
+    }
+}
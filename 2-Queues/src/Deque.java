@@ -6,6 +6,7 @@
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public class Deque <Item> implements Iterable<Item> {
     private static class Node<NodeItem> {
@@ -20,6 +21,17 @@ public class Deque <Item> implements Iterable<Item> {
         }
     }
 
+    // a detached run of linked nodes
+    private static class Chain<ChainItem> {
+        public final Node<ChainItem> first;
+        public final Node<ChainItem> last;
+
+        public Chain(Node<ChainItem> first, Node<ChainItem> last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
     private Node<Item> first;
     private Node<Item> last;
     private int size;
@@ -87,6 +99,103 @@ public class Deque <Item> implements Iterable<Item> {
         this.size ++;
     }
 
+    // add all the items to the front, keeping their order: items[0] becomes the first item
+    public void addAllFirst(Item[] items) {
+        Chain<Item> chain = this.chain(items);
+
+        if (chain == null) {
+            return;
+        }
+
+        if (this.isEmpty()) {
+            this.last = chain.last;
+        } else {
+            chain.last.next = this.first;
+            this.first.previous = chain.last;
+        }
+
+        this.first = chain.first;
+        this.size += items.length;
+    }
+
+    // add all the items to the back, keeping their order
+    public void addAllLast(Item[] items) {
+        Chain<Item> chain = this.chain(items);
+
+        if (chain == null) {
+            return;
+        }
+
+        if (this.isEmpty()) {
+            this.first = chain.first;
+        } else {
+            chain.first.previous = this.last;
+            this.last.next = chain.first;
+        }
+
+        this.last = chain.last;
+        this.size += items.length;
+    }
+
+    // remove up to max items from the front, handing them to consumer in order; returns how many
+    // every item is unlinked before being handed over, so if consumer throws, the items it already
+    // got are out of the deque and the others are still in it
+    public int drainFirst(int max, Consumer<? super Item> consumer) {
+        if (max < 0 || consumer == null) {
+            throw new IllegalArgumentException("Illegal argument");
+        }
+
+        int count = Math.min(max, this.size);
+
+        for (int i = 0; i < count; i++) {
+            Node<Item> current = this.first;
+            this.first = current.next;
+            this.size --;
+
+            if (this.first == null) {
+                this.last = null;
+            } else {
+                this.first.previous = null;
+            }
+
+            consumer.accept(current.value);
+        }
+
+        return count;
+    }
+
+    // links the items into a detached chain (null if there are no items)
+    // nothing is linked if one of the items is null
+    private Chain<Item> chain(Item[] items) {
+        if (items == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        for (Item item : items) {
+            if (item == null) {
+                throw new IllegalArgumentException("Illegal null argument");
+            }
+        }
+
+        Node<Item> chainFirst = null;
+        Node<Item> previous = null;
+
+        for (Item item : items) {
+            Node<Item> node = new Node<>(item);
+            node.previous = previous;
+
+            if (previous == null) {
+                chainFirst = node;
+            } else {
+                previous.next = node;
+            }
+
+            previous = node;
+        }
+
+        return chainFirst == null ? null : new Chain<>(chainFirst, previous);
+    }
+
     // remove and return the item from the front
     public Item removeFirst() {
         if (this.size == 0) {
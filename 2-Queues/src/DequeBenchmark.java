@@ -0,0 +1,141 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.lang.management.ManagementFactory;
+
+// Compares the linked Deque with RingBufferDeque: operations per second and bytes allocated per
+// operation for queue, stack and mixed access patterns.
+// Usage: DequeBenchmark [items]
+public class DequeBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    // Keeps the JIT from dropping the benchmarked calls as dead code.
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] values = new Integer[items];
+        for (int i = 0; i < items; i++) {
+            values[i] = i;
+        }
+
+        System.out.printf("%-40s %15s %10s\n", "benchmark", "ops/s", "B/op");
+
+        // Every pass adds and removes every value once: 2 * items operations.
+        measure("Deque.queue", 2L * items, () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (Integer value : values) {
+                deque.addLast(value);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            sink += sum;
+        });
+
+        measure("RingBufferDeque.queue", 2L * items, () -> {
+            RingBufferDeque<Integer> deque = new RingBufferDeque<>();
+            for (Integer value : values) {
+                deque.addLast(value);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            sink += sum;
+        });
+
+        measure("Deque.stack", 2L * items, () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (Integer value : values) {
+                deque.addFirst(value);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            sink += sum;
+        });
+
+        measure("RingBufferDeque.stack", 2L * items, () -> {
+            RingBufferDeque<Integer> deque = new RingBufferDeque<>();
+            for (Integer value : values) {
+                deque.addFirst(value);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            sink += sum;
+        });
+
+        // A small working set pushed at both ends and drained from the back, as a work-stealing
+        // buffer would be.
+        measure("Deque.mixed", 2L * items, () -> {
+            Deque<Integer> deque = new Deque<>();
+            long sum = 0;
+            for (int i = 0; i < items; i++) {
+                if ((i & 1) == 0) {
+                    deque.addFirst(values[i]);
+                } else {
+                    deque.addLast(values[i]);
+                }
+                if (deque.size() > 64) {
+                    sum += deque.removeLast();
+                }
+            }
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            sink += sum;
+        });
+
+        measure("RingBufferDeque.mixed", 2L * items, () -> {
+            RingBufferDeque<Integer> deque = new RingBufferDeque<>();
+            long sum = 0;
+            for (int i = 0; i < items; i++) {
+                if ((i & 1) == 0) {
+                    deque.addFirst(values[i]);
+                } else {
+                    deque.addLast(values[i]);
+                }
+                if (deque.size() > 64) {
+                    sum += deque.removeLast();
+                }
+            }
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            sink += sum;
+        });
+    }
+
+    static void measure(String name, long operations, Runnable benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            benchmark.run();
+        }
+
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            benchmark.run();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        bytes = allocatedBytes() - bytes;
+        double total = (double) operations * MEASURED_ITERATIONS;
+
+        System.out.printf("%-40s %15.1f %10.2f\n", name, total / (elapsed / 1e9), bytes / total);
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,233 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Deque of longs, stored unboxed in a circular long[] laid out like RingBufferDeque's.
+// Nothing is boxed when adding, removing or iterating with nextLong().
+// As in RingBufferDeque, any add or remove made after an iterator was created makes it throw
+// ConcurrentModificationException.
+public class LongDeque implements Iterable<Long> {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] items;
+    private int mask;
+    // index of the first item
+    private int head;
+    private int size;
+    // changed by every add and remove, so that iterators can detect them
+    private int modifications;
+
+    // construct an empty deque
+    public LongDeque() {
+        this.items = new long[MIN_CAPACITY];
+        this.mask = MIN_CAPACITY - 1;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return this.size;
+    }
+
+    // add the item to the front
+    public void addFirst(long item) {
+        if (this.size == this.items.length) {
+            this.resize(this.items.length * 2);
+        }
+
+        this.head = (this.head - 1) & this.mask;
+        this.items[this.head] = item;
+        this.size++;
+        this.modifications++;
+    }
+
+    // add the item to the back
+    public void addLast(long item) {
+        if (this.size == this.items.length) {
+            this.resize(this.items.length * 2);
+        }
+
+        this.items[(this.head + this.size) & this.mask] = item;
+        this.size++;
+        this.modifications++;
+    }
+
+    // add all the items to the back, in order, resizing at most once
+    public void addAll(long[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        if (this.size + values.length > this.items.length) {
+            int capacity = this.items.length;
+            while (capacity < this.size + values.length) {
+                capacity *= 2;
+            }
+            this.resize(capacity);
+        }
+
+        int tail = (this.head + this.size) & this.mask;
+        int firstPart = Math.min(values.length, this.items.length - tail);
+
+        System.arraycopy(values, 0, this.items, tail, firstPart);
+        System.arraycopy(values, firstPart, this.items, 0, values.length - firstPart);
+        this.size += values.length;
+        this.modifications++;
+    }
+
+    // remove and return the item from the front
+    public long removeFirst() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        long item = this.items[this.head];
+        this.head = (this.head + 1) & this.mask;
+        this.size--;
+        this.modifications++;
+
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public long removeLast() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        long item = this.items[(this.head + this.size - 1) & this.mask];
+        this.size--;
+        this.modifications++;
+
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // remove up to target.length items from the front into target, in order, returning how many
+    public int drainTo(long[] target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        int count = Math.min(target.length, this.size);
+        int firstPart = Math.min(count, this.items.length - this.head);
+
+        System.arraycopy(this.items, this.head, target, 0, firstPart);
+        System.arraycopy(this.items, 0, target, firstPart, count - firstPart);
+
+        this.head = (this.head + count) & this.mask;
+        this.size -= count;
+        this.modifications++;
+
+        this.shrinkIfSparse();
+        return count;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongDequeIterator();
+    }
+
+    private void shrinkIfSparse() {
+        if (this.items.length > MIN_CAPACITY && this.size <= this.items.length / 4) {
+            int capacity = this.items.length / 2;
+            while (capacity > MIN_CAPACITY && this.size <= capacity / 4) {
+                capacity /= 2;
+            }
+            this.resize(capacity);
+        }
+    }
+
+    // moves the items, in order, to the start of a new array of the given power of two capacity
+    private void resize(int capacity) {
+        long[] copy = new long[capacity];
+        int firstPart = Math.min(this.size, this.items.length - this.head);
+
+        System.arraycopy(this.items, this.head, copy, 0, firstPart);
+        System.arraycopy(this.items, 0, copy, firstPart, this.size - firstPart);
+
+        this.items = copy;
+        this.mask = capacity - 1;
+        this.head = 0;
+    }
+
+    private class LongDequeIterator implements PrimitiveIterator.OfLong {
+        private final int expectedModifications = modifications;
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if (modifications != this.expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return items[(head + this.next++) & mask];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) {
+        LongDeque deck = new LongDeque();
+        deck.addLast(2);
+        deck.addFirst(1);
+        deck.addFirst(2);
+        deck.addLast(2);
+        deck.addLast(3);
+        deck.addFirst(4);
+        deck.removeLast();
+
+        // Expected output: 4 2 1 2 2
+        PrimitiveIterator.OfLong iterator = deck.iterator();
+        while (iterator.hasNext()) {
+            System.out.println(iterator.nextLong());
+        }
+
+        // Expected output: false, 5
+        System.out.printf("%b, %d\n", deck.isEmpty(), deck.size());
+
+        // Expected output: 4 2 2
+        System.out.printf("%d, %d, %d\n", deck.removeFirst(), deck.removeLast(), deck.removeLast());
+
+        // Expected output: 3, 2 1 5
+        deck.addAll(new long[] {5, 6, 7});
+        long[] drained = new long[3];
+        System.out.printf("%d, %d %d %d\n", deck.drainTo(drained), drained[0], drained[1], drained[2]);
+
+        iterator = deck.iterator();
+        iterator.nextLong();
+        deck.addFirst(0);
+
+        // Expected output: ConcurrentModificationException
+        try {
+            iterator.nextLong();
+        } catch (ConcurrentModificationException e) {
+            System.out.println("ConcurrentModificationException");
+        }
+    }
+}
@@ -6,11 +6,25 @@
 
 import edu.princeton.cs.algs4.StdIn;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
 public class Permutation {
+    // Usage: Permutation k [--reservoir]
+    // With --reservoir only k strings are ever kept in memory, instead of the whole input.
     public static void main(String []args) {
-        RandomizedQueue<String> rq = new RandomizedQueue<>();
         int k = Integer.parseInt(args[0]);
 
+        if (args.length > 1 && args[1].equals("--reservoir")) {
+            reservoir(k, new Tokenizer(System.in), new SplittableRandom());
+            return;
+        }
+
+        RandomizedQueue<String> rq = new RandomizedQueue<>();
+
         while (!StdIn.isEmpty()) {
             rq.enqueue(StdIn.readString());
         }
@@ -19,4 +33,154 @@ public class Permutation {
             System.out.println(rq.dequeue());
         }
     }
+
+    // Prints k strings of the input picked uniformly at random, in random order, keeping only k of
+    // them in memory (Li's Algorithm L). The number of strings to skip before the next replacement is
+    // drawn directly, so skipped strings are only scanned for their end and never decoded.
+    // Prints the whole input, shuffled, if it has fewer than k strings.
+    private static void reservoir(int k, Tokenizer in, SplittableRandom random) {
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        String[] reservoir = new String[k];
+        int filled = 0;
+
+        while (filled < k) {
+            String token = in.next();
+            if (token == null) {
+                break;
+            }
+            reservoir[filled++] = token;
+        }
+
+        if (filled == k && k > 0) {
+            double w = Math.exp(Math.log(uniform(random)) / k);
+
+            while (true) {
+                long skip = (long) Math.floor(Math.log(uniform(random)) / Math.log1p(-w));
+                if (!in.skip(skip)) {
+                    break;
+                }
+
+                String token = in.next();
+                if (token == null) {
+                    break;
+                }
+
+                reservoir[random.nextInt(k)] = token;
+                w *= Math.exp(Math.log(uniform(random)) / k);
+            }
+        }
+
+        // The reservoir isn't in random order, so it goes out through a RandomizedQueue.
+        RandomizedQueue<String> rq = new RandomizedQueue<>(random);
+        for (int i = 0; i < filled; i++) {
+            rq.enqueue(reservoir[i]);
+        }
+
+        while (!rq.isEmpty()) {
+            System.out.println(rq.dequeue());
+        }
+    }
+
+    // uniform in (0, 1], so that its logarithm is finite
+    private static double uniform(SplittableRandom random) {
+        return 1 - random.nextDouble();
+    }
+
+    // Splits an input stream on ASCII whitespace, reading it in large chunks straight from the
+    // stream and decoding the tokens as UTF-8 only when asked for.
+    private static class Tokenizer {
+        private final InputStream in;
+        private final byte[] buffer;
+        private int position;
+        private int limit;
+        private byte[] token;
+
+        public Tokenizer(InputStream in) {
+            this.in = in;
+            this.buffer = new byte[1 << 16];
+            this.position = 0;
+            this.limit = 0;
+            this.token = new byte[64];
+        }
+
+        // the next token, or null at the end of the input
+        public String next() {
+            if (!this.skipWhitespace()) {
+                return null;
+            }
+
+            int length = 0;
+            while (true) {
+                int start = this.position;
+                while (this.position < this.limit && (this.buffer[this.position] & 0xFF) > ' ') {
+                    this.position++;
+                }
+
+                int chunk = this.position - start;
+                if (length + chunk > this.token.length) {
+                    byte[] copy = new byte[Math.max(length + chunk, this.token.length * 2)];
+                    System.arraycopy(this.token, 0, copy, 0, length);
+                    this.token = copy;
+                }
+                System.arraycopy(this.buffer, start, this.token, length, chunk);
+                length += chunk;
+
+                if (this.position < this.limit || !this.fill()) {
+                    return new String(this.token, 0, length, StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        // skips count tokens, returning false if the input ended first
+        public boolean skip(long count) {
+            for (long i = 0; i < count; i++) {
+                if (!this.skipWhitespace()) {
+                    return false;
+                }
+
+                do {
+                    while (this.position < this.limit && (this.buffer[this.position] & 0xFF) > ' ') {
+                        this.position++;
+                    }
+                } while (this.position == this.limit && this.fill());
+            }
+
+            return true;
+        }
+
+        // moves to the start of the next token, returning false at the end of the input
+        private boolean skipWhitespace() {
+            while (true) {
+                while (this.position < this.limit && (this.buffer[this.position] & 0xFF) <= ' ') {
+                    this.position++;
+                }
+
+                if (this.position < this.limit) {
+                    return true;
+                }
+
+                if (!this.fill()) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean fill() {
+            try {
+                int read = this.in.read(this.buffer);
+                while (read == 0) {
+                    read = this.in.read(this.buffer);
+                }
+
+                this.position = 0;
+                this.limit = Math.max(read, 0);
+                return read > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
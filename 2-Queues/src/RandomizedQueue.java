@@ -6,17 +6,44 @@
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
+    // Largest queue iterated through a shuffled int[n]: an O(n) start costs next to nothing up to
+    // here, and it gives an exactly uniform order where a Feistel network is the most biased.
+    private static final int SHUFFLE_LIMIT = 1024;
+
     private Object[] array;
     private int n;
+    // changed by every enqueue and dequeue, so that iterators can detect them
+    private int modifications;
+    // null to draw from the shared StdRandom generator
+    private final RandomGenerator random;
 
     // construct an empty randomized queue
     public RandomizedQueue() {
         this.array = new Object[1];
         this.n = 0;
+        this.random = null;
+    }
+
+    // construct an empty randomized queue drawing only from random, e.g. a SplittableRandom or
+    // RandomGenerator.of("Xoshiro256PlusPlus"): seeding it makes the queue reproducible, and giving
+    // every queue its own generator keeps queues used by different threads from contending on one.
+    // random is not thread-safe in general, so neither is the queue.
+    public RandomizedQueue(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.array = new Object[1];
+        this.n = 0;
+        this.random = random;
     }
 
     // is the randomized queue empty?
@@ -40,6 +67,70 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
 
         this.array[n++] = item;
+        this.modifications++;
+    }
+
+    // add all the items, growing the array at most once
+    public void enqueueAll(Item[] items) {
+        if (items == null) {
+            throw new IllegalArgumentException();
+        }
+
+        for (Item item : items) {
+            if (item == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        if (this.n + items.length > this.array.length) {
+            int capacity = this.array.length;
+            while (capacity < this.n + items.length) {
+                capacity *= 2;
+            }
+            this.resize(capacity);
+        }
+
+        System.arraycopy(items, 0, this.array, this.n, items.length);
+        this.n += items.length;
+        this.modifications++;
+    }
+
+    // remove and return k random items, in random order, shrinking the array at most once
+    public List<Item> dequeueBatch(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (k > this.n) {
+            throw new NoSuchElementException();
+        }
+
+        // Partial Fisher-Yates: move a random remaining item to the tail k times, then cut the tail off.
+        for (int i = 0; i < k; i++) {
+            int last = this.n - 1 - i;
+            int index = getRandomIndex(last + 1);
+            Object swap = this.array[index];
+            this.array[index] = this.array[last];
+            this.array[last] = swap;
+        }
+
+        Object[] batch = new Object[k];
+        System.arraycopy(this.array, this.n - k, batch, 0, k);
+        Arrays.fill(this.array, this.n - k, this.n, null);
+        this.n -= k;
+        this.modifications++;
+
+        int capacity = this.array.length;
+        while (capacity > 1 && this.n <= capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity != this.array.length) {
+            this.resize(capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        Item[] items = (Item[]) batch;
+        return Arrays.asList(items);
     }
 
     // remove and return a random item
@@ -58,6 +149,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         this.array[index] = this.array[n - 1];
         this.array[n - 1] = null;
         this.n --;
+        this.modifications++;
         return item;
     }
 
@@ -71,81 +163,166 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return (Item) this.array[index];
     }
 
-    // return an independent iterator over items in random order
+    // Returns an iterator over the items in random order. It reads the items from the queue, so
+    // any enqueue or dequeue made after it was created makes it throw ConcurrentModificationException.
     @Override
     public Iterator<Item> iterator() {
-        return new RandomIterator<>(this);
+        if (this.n <= SHUFFLE_LIMIT) {
+            return new ShuffledIterator<>(this);
+        }
+
+        return new FeistelIterator<>(this);
     }
 
+    // the items always fill [0, n), so moving them is a single copy of n references
     private void resize(int capacity) {
-        Item[] copy = (Item[]) new Object[capacity];
-        int index = 0;
-
-        for (Object o : this.array) {
-            if (o != null) {
-                copy[index] = (Item) o;
-                index++;
-            }
-        }
-
+        Object[] copy = new Object[capacity];
+        System.arraycopy(this.array, 0, copy, 0, this.n);
         this.array = copy;
     }
 
     private int getRandomIndex(int max) {
-        return StdRandom.uniform(max);
+        if (this.random == null) {
+            return StdRandom.uniform(max);
+        }
+
+        return this.random.nextInt(max);
     }
 
-    private class RandomIterator<IteratorItem> implements Iterator<IteratorItem> {
-        Object[] array;
-        int items;
+    // Checks for modifications of the queue and counts the returned items; the subclasses pick
+    // the index of every next item.
+    private abstract class RandomIterator<IteratorItem> implements Iterator<IteratorItem> {
+        protected final RandomizedQueue<IteratorItem> queue;
+        protected final int items;
+        private final int expectedModifications;
+        private int returned;
 
         public RandomIterator(RandomizedQueue<IteratorItem> queue) {
-            this.array = new Object[queue.array.length];
-            System.arraycopy(queue.array, 0, this.array, 0, queue.array.length);
+            this.queue = queue;
             this.items = queue.n;
+            this.expectedModifications = queue.modifications;
         }
 
         @Override
         public boolean hasNext() {
-            return this.items > 0;
+            return this.returned < this.items;
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public IteratorItem next() {
+            if (this.queue.modifications != this.expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+
             if (!this.hasNext()) {
                 throw new NoSuchElementException();
             }
 
-            if (this.items == this.array.length / 4) {
-                this.resize(this.array.length / 2);
+            int index = this.nextIndex(this.returned);
+            this.returned++;
+            return (IteratorItem) this.queue.array[index];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        // index of the item to return after the first returned ones
+        protected abstract int nextIndex(int returned);
+    }
+
+    // Walks the items in the order of a Fisher-Yates shuffle of their indices, drawn lazily one
+    // step per call to next, so every order is equally likely. Starting it allocates an int[n].
+    private class ShuffledIterator<IteratorItem> extends RandomIterator<IteratorItem> {
+        private final int[] order;
+
+        public ShuffledIterator(RandomizedQueue<IteratorItem> queue) {
+            super(queue);
+            this.order = new int[this.items];
+
+            for (int i = 0; i < this.order.length; i++) {
+                this.order[i] = i;
             }
+        }
+
+        @Override
+        protected int nextIndex(int returned) {
+            int last = this.items - 1 - returned;
+            int position = getRandomIndex(last + 1);
+            int index = this.order[position];
 
-            int index = getRandomIndex(this.items);
-            IteratorItem item = (IteratorItem) this.array[index];;
+            this.order[position] = this.order[last];
+            return index;
+        }
+    }
 
-            this.array[index] = this.array[this.items - 1];
-            this.array[this.items - 1] = null;
-            this.items --;
-            return item;
+    // Walks the items in the order of a random bijection of [0, n), so starting an iteration takes
+    // O(1) time and memory whatever the size of the queue.
+    // The bijection is an 8 round Feistel network with random 31 bit round keys over the smallest
+    // domain of an even number of bits holding n indices; outputs falling outside [0, n) are
+    // skipped (cycle walking), which takes fewer than 4 steps per item on average since the domain
+    // is below 4n.
+    // The order is NOT uniformly random: the keys can select at most 2^248 of the n! orders, a tiny
+    // fraction of them for the sizes this is used for, and even among those some orders are more
+    // likely than others. It suits visiting the items in a scrambled order, not statistics that
+    // need a uniform random permutation.
+    private class FeistelIterator<IteratorItem> extends RandomIterator<IteratorItem> {
+        private static final int ROUNDS = 8;
+
+        private final int halfBits;
+        private final int halfMask;
+        private final int[] keys;
+        private long counter;
+
+        public FeistelIterator(RandomizedQueue<IteratorItem> queue) {
+            super(queue);
+
+            int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(this.items - 1));
+            bits += bits & 1;
+            this.halfBits = bits / 2;
+            this.halfMask = (1 << this.halfBits) - 1;
+
+            this.keys = new int[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                this.keys[i] = getRandomIndex(Integer.MAX_VALUE);
+            }
         }
 
         @Override
-        public void remove() {
-            throw new UnsupportedOperationException();
+        protected int nextIndex(int returned) {
+            long index;
+            do {
+                index = this.permute(this.counter++);
+            } while (index >= this.items);
+
+            return (int) index;
         }
 
-        private void resize(int capacity) {
-            Object[] copy = new Object[capacity];
-            int index = 0;
+        // image of position, in [0, 2^(2 * halfBits)), through the Feistel network
+        private long permute(long position) {
+            int left = (int) (position >>> this.halfBits);
+            int right = (int) position & this.halfMask;
 
-            for (Object o : this.array) {
-                if (o != null) {
-                    copy[index] = o;
-                    index++;
-                }
+            for (int key : this.keys) {
+                int mixed = left ^ (this.round(right, key) & this.halfMask);
+                left = right;
+                right = mixed;
             }
 
-            this.array = copy;
+            return ((long) left << this.halfBits) | right;
+        }
+
+        // round function: the 32 bit finalizer of MurmurHash3 applied to the keyed half
+        private int round(int half, int key) {
+            int h = half ^ key;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h;
         }
     }
 
@@ -0,0 +1,143 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+// Time and memory footprint of RandomizedQueue: bytes allocated by the benchmarking thread per
+// iterator created, and per operation when filling and emptying a queue (resizes included).
+// It then measures the throughput of threads each working on their own queue, with the queues
+// either sharing the StdRandom generator or each owning one.
+// Usage: RandomizedQueueBenchmark [sizes [threads]], e.g. RandomizedQueueBenchmark 1000,100000,10000000 1,2,4,8,16,32
+public class RandomizedQueueBenchmark {
+    private static final int OPERATIONS_PER_THREAD = 2_000_000;
+    private static final int QUEUE_SIZE = 1024;
+
+    // Keeps the JIT from dropping the benchmarked calls as dead code.
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        String[] sizes = (args.length > 0 ? args[0] : "1000,100000,1000000").split(",");
+        String[] threadCounts = (args.length > 1 ? args[1] : "1,2,4,8,16,32").split(",");
+
+        System.out.printf("%-40s %15s %10s\n", "benchmark", "ops/s", "B/op");
+
+        for (String value : sizes) {
+            int size = Integer.parseInt(value.trim());
+            Integer[] items = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                items[i] = i;
+            }
+
+            // Every pass enqueues and dequeues every item once.
+            DequeBenchmark.measure(String.format("RandomizedQueue.fill+empty n=%d", size), 2L * size, () -> {
+                RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+                for (Integer item : items) {
+                    queue.enqueue(item);
+                }
+                long sum = 0;
+                while (!queue.isEmpty()) {
+                    sum += queue.dequeue();
+                }
+                sink += sum;
+            });
+
+            RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+            queue.enqueueAll(items);
+            int iterators = Math.max(1, 10_000_000 / size);
+
+            // Creating an iterator and taking a single item: the cost of starting an iteration.
+            DequeBenchmark.measure(String.format("RandomizedQueue.iterator n=%d", size), iterators, () -> {
+                long sum = 0;
+                for (int i = 0; i < iterators; i++) {
+                    Iterator<Integer> iterator = queue.iterator();
+                    sum += iterator.next();
+                }
+                sink += sum;
+            });
+
+            DequeBenchmark.measure(String.format("RandomizedQueue.iterate n=%d", size), size, () -> {
+                long sum = 0;
+                for (Integer item : queue) {
+                    sum += item;
+                }
+                sink += sum;
+            });
+        }
+
+        String[] names = {"StdRandom", "SplittableRandom", "Xoshiro256PlusPlus", "L64X128MixRandom"};
+        System.out.printf("\n%-40s %15s\n", "threads benchmark", "ops/s");
+
+        for (String value : threadCounts) {
+            int threads = Integer.parseInt(value.trim());
+
+            for (String name : names) {
+                Supplier<RandomizedQueue<Integer>> factory;
+
+                if (name.equals("StdRandom")) {
+                    factory = RandomizedQueue::new;
+                } else if (name.equals("SplittableRandom")) {
+                    factory = () -> new RandomizedQueue<>(new SplittableRandom());
+                } else {
+                    factory = () -> new RandomizedQueue<>(RandomGenerator.of(name));
+                }
+
+                // warm up, then measure
+                runThreads(threads, factory);
+                double opsPerSecond = runThreads(threads, factory);
+                System.out.printf("%-40s %15.1f\n", String.format("%s threads=%d", name, threads), opsPerSecond);
+            }
+        }
+    }
+
+    // Every thread keeps its own queue at QUEUE_SIZE items, alternating dequeue, enqueue and sample.
+    private static double runThreads(int threads, Supplier<RandomizedQueue<Integer>> factory) {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            RandomizedQueue<Integer> queue = factory.get();
+            for (int i = 0; i < QUEUE_SIZE; i++) {
+                queue.enqueue(i);
+            }
+
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                long sum = 0;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i += 3) {
+                    Integer item = queue.dequeue();
+                    queue.enqueue(item);
+                    sum += queue.sample();
+                }
+                sink += sum;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return (double) threads * OPERATIONS_PER_THREAD / ((System.nanoTime() - begin) / 1e9);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Same API as Deque, backed by a circular array instead of linked nodes.
+// The capacity is always a power of two, so wrapping around is a mask instead of a modulo. The
+// array doubles when full and halves when a quarter full, so a sequence of adds and removes
+// around a resize threshold can't make it resize on every call.
+// Unlike Deque's iterator, which follows the links of whatever nodes are there, an iterator here
+// can't tell where its position went once items are added or removed at the front, so it fails
+// fast instead: any add or remove made after it was created makes it throw
+// ConcurrentModificationException.
+public class RingBufferDeque<Item> implements Iterable<Item> {
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[] items;
+    private int mask;
+    // index of the first item
+    private int head;
+    private int size;
+    // changed by every add and remove, so that iterators can detect them
+    private int modifications;
+
+    // construct an empty deque
+    public RingBufferDeque() {
+        this.items = new Object[MIN_CAPACITY];
+        this.mask = MIN_CAPACITY - 1;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return this.size;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        if (this.size == this.items.length) {
+            this.resize(this.items.length * 2);
+        }
+
+        this.head = (this.head - 1) & this.mask;
+        this.items[this.head] = item;
+        this.size++;
+        this.modifications++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Illegal null argument");
+        }
+
+        if (this.size == this.items.length) {
+            this.resize(this.items.length * 2);
+        }
+
+        this.items[(this.head + this.size) & this.mask] = item;
+        this.size++;
+        this.modifications++;
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        @SuppressWarnings("unchecked")
+        Item item = (Item) this.items[this.head];
+        this.items[this.head] = null;
+        this.head = (this.head + 1) & this.mask;
+        this.size--;
+        this.modifications++;
+
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Deque is empty!");
+        }
+
+        int tail = (this.head + this.size - 1) & this.mask;
+        @SuppressWarnings("unchecked")
+        Item item = (Item) this.items[tail];
+        this.items[tail] = null;
+        this.size--;
+        this.modifications++;
+
+        this.shrinkIfSparse();
+        return item;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new RingBufferIterator();
+    }
+
+    private void shrinkIfSparse() {
+        if (this.items.length > MIN_CAPACITY && this.size <= this.items.length / 4) {
+            this.resize(this.items.length / 2);
+        }
+    }
+
+    // moves the items, in order, to the start of a new array of the given power of two capacity
+    private void resize(int capacity) {
+        Object[] copy = new Object[capacity];
+        int firstPart = Math.min(this.size, this.items.length - this.head);
+
+        System.arraycopy(this.items, this.head, copy, 0, firstPart);
+        System.arraycopy(this.items, 0, copy, firstPart, this.size - firstPart);
+
+        this.items = copy;
+        this.mask = capacity - 1;
+        this.head = 0;
+    }
+
+    private class RingBufferIterator implements Iterator<Item> {
+        private final int expectedModifications = modifications;
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Item next() {
+            if (modifications != this.expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return (Item) items[(head + this.next++) & mask];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static void main(String[] args) {
+        RingBufferDeque<String> deck = new RingBufferDeque<>();
+        deck.addLast("2");
+        deck.addFirst("1");
+        deck.addFirst("2");
+        deck.addLast("2");
+        deck.addLast("3");
+        deck.addFirst("4");
+        deck.removeLast();
+
+        // Expected output: 4 2 1 2 2
+        for (String s : deck) {
+            System.out.println(s);
+        }
+
+        // Expected output: false, 5
+        System.out.printf("%b, %d\n", deck.isEmpty(), deck.size());
+
+        // Expected output: 4 2 2
+        System.out.printf("%s, %s, %s\n", deck.removeFirst(), deck.removeLast(), deck.removeLast());
+
+        Iterator<String> iterator = deck.iterator();
+        iterator.next();
+        deck.addFirst("0");
+
+        // Expected output: ConcurrentModificationException
+        try {
+            iterator.next();
+        } catch (ConcurrentModificationException e) {
+            System.out.println("ConcurrentModificationException");
+        }
+    }
+}
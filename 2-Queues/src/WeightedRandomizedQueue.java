@@ -0,0 +1,315 @@
+/*
+    @author: Simone Nicol <en0mia.dev@gmail.com>
+    @created: 17/10/26
+    @copyright: Check the repository license.
+*/
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+
+// RandomizedQueue whose items come out with probability proportional to their weight.
+// Items and weights fill [0, n) of two parallel arrays, as in RandomizedQueue, and a Fenwick tree
+// over the weights finds the item a random point of [0, total weight) falls on in O(log n).
+// enqueue, dequeue and sample are all O(log n); the tree is rebuilt in O(n) on resizes and once
+// every n updates, which keeps floating point drift in check at O(1) amortized cost.
+public class WeightedRandomizedQueue<Item> implements Iterable<Item> {
+    private Object[] items;
+    private double[] weights;
+    // Fenwick tree over weights, 1-based: tree[i] is the sum of the weights (i - lowbit(i), i]
+    private double[] tree;
+    private int n;
+    private int updates;
+    // changed by every enqueue and dequeue, so that iterators can detect them
+    private int modifications;
+    // null to draw from the shared StdRandom generator
+    private final RandomGenerator random;
+
+    // construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        this.items = new Object[1];
+        this.weights = new double[1];
+        this.tree = new double[2];
+        this.n = 0;
+        this.random = null;
+    }
+
+    // construct an empty weighted randomized queue drawing only from random
+    public WeightedRandomizedQueue(RandomGenerator random) {
+        if (random == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.items = new Object[1];
+        this.weights = new double[1];
+        this.tree = new double[2];
+        this.n = 0;
+        this.random = random;
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return this.n == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return this.n;
+    }
+
+    // add the item with the given positive weight
+    public void enqueue(Item item, double weight) {
+        if (item == null || !(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException();
+        }
+
+        if (this.n == this.items.length) {
+            this.resize(this.items.length * 2);
+        }
+
+        this.items[this.n] = item;
+        this.weights[this.n] = weight;
+        add(this.tree, this.n, weight);
+        this.n++;
+        this.modifications++;
+        this.updated();
+    }
+
+    // remove and return an item, picked with probability proportional to its weight
+    public Item dequeue() {
+        if (this.n == 0) {
+            throw new NoSuchElementException();
+        }
+
+        int index = this.pick();
+        int last = this.n - 1;
+        @SuppressWarnings("unchecked")
+        Item item = (Item) this.items[index];
+
+        // The last item takes the removed one's slot, which only touches two paths of the tree.
+        add(this.tree, index, this.weights[last] - this.weights[index]);
+        add(this.tree, last, -this.weights[last]);
+        this.items[index] = this.items[last];
+        this.weights[index] = this.weights[last];
+        this.items[last] = null;
+        this.weights[last] = 0;
+        this.n--;
+        this.modifications++;
+
+        if (this.n > 0 && this.n == this.items.length / 4) {
+            this.resize(this.items.length / 2);
+        } else {
+            this.updated();
+        }
+
+        return item;
+    }
+
+    // return an item picked with probability proportional to its weight (but do not remove it)
+    @SuppressWarnings("unchecked")
+    public Item sample() {
+        if (this.n == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return (Item) this.items[this.pick()];
+    }
+
+    // Returns an iterator over the items in weighted random order: every next item is picked among
+    // the ones not returned yet with probability proportional to its weight.
+    // The iterator draws the order lazily, sampling without replacement from its own Fenwick tree
+    // over the weights, built in O(n); every next is then O(log n). It allocates 8 bytes (the tree)
+    // plus 1 bit (the items already returned) per item. The items themselves are read from the
+    // queue, and any enqueue or dequeue made after the iterator was created makes it throw
+    // ConcurrentModificationException.
+    @Override
+    public Iterator<Item> iterator() {
+        return new WeightedIterator();
+    }
+
+    private int pick() {
+        return pick(this.tree, this.n, this.uniform());
+    }
+
+    // Picks one of the first count slots of tree with probability proportional to its weight,
+    // given a uniform draw in [0, 1).
+    private static int pick(double[] tree, int count, double uniform) {
+        double point = uniform * prefix(tree, count);
+
+        // Descends the tree to the slot whose weight interval contains point.
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= point) {
+                position = next;
+                point -= tree[next];
+            }
+        }
+
+        // Rounding can only push the point past the last item.
+        return Math.min(position, count - 1);
+    }
+
+    private double uniform() {
+        if (this.random == null) {
+            return StdRandom.uniform();
+        }
+
+        return this.random.nextDouble();
+    }
+
+    // adds delta to the weight of slot index in tree
+    private static void add(double[] tree, int index, double delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // sum of the weights of the first count slots of tree
+    private static double prefix(double[] tree, int count) {
+        double sum = 0;
+
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+
+        return sum;
+    }
+
+    // turns tree[1..], holding the weight of every slot, into a Fenwick tree in O(tree.length)
+    private static void build(double[] tree) {
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void updated() {
+        if (++this.updates > this.n) {
+            this.rebuild();
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] itemsCopy = new Object[capacity];
+        double[] weightsCopy = new double[capacity];
+        System.arraycopy(this.items, 0, itemsCopy, 0, this.n);
+        System.arraycopy(this.weights, 0, weightsCopy, 0, this.n);
+
+        this.items = itemsCopy;
+        this.weights = weightsCopy;
+        this.tree = new double[capacity + 1];
+        this.rebuild();
+    }
+
+    // recomputes the tree from the weights in O(capacity)
+    private void rebuild() {
+        System.arraycopy(this.weights, 0, this.tree, 1, this.weights.length);
+        build(this.tree);
+        this.updates = 0;
+    }
+
+    private class WeightedIterator implements Iterator<Item> {
+        private final int expectedModifications = modifications;
+        private final int count = n;
+        // Fenwick tree over the weights of the items not returned yet
+        private final double[] remainingTree;
+        // one bit per item, set once it is returned
+        private final long[] returned;
+        private int remaining;
+        private int draws;
+
+        public WeightedIterator() {
+            this.remainingTree = new double[this.count + 1];
+            this.returned = new long[(this.count + 63) >>> 6];
+            this.remaining = this.count;
+            this.rebuild();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Item next() {
+            if (modifications != this.expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            // Same policy as the queue: subtracting the weights leaves rounding errors behind, so
+            // the tree is rebuilt once there have been more draws than items left.
+            if (this.draws > this.remaining) {
+                this.rebuild();
+            }
+
+            // Those rounding errors can also land a draw on an item already returned.
+            int index;
+            do {
+                index = pick(this.remainingTree, this.count, uniform());
+            } while (this.isReturned(index));
+
+            this.returned[index >>> 6] |= 1L << index;
+            add(this.remainingTree, index, -weights[index]);
+            this.remaining--;
+            this.draws++;
+
+            return (Item) items[index];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private boolean isReturned(int index) {
+            return (this.returned[index >>> 6] & (1L << index)) != 0;
+        }
+
+        // recomputes the tree from the weights of the items not returned yet
+        private void rebuild() {
+            for (int i = 0; i < this.count; i++) {
+                this.remainingTree[i + 1] = this.isReturned(i) ? 0 : weights[i];
+            }
+
+            build(this.remainingTree);
+            this.draws = 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<String> wq = new WeightedRandomizedQueue<>();
+        wq.enqueue("a", 1);
+        wq.enqueue("b", 2);
+        wq.enqueue("c", 7);
+
+        // Expected output: a, b, c in weighted random order, c first most of the time
+        for (String s : wq) {
+            System.out.println(s);
+        }
+
+        // Expected output: about 0.1, 0.2, 0.7
+        int[] counts = new int[3];
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts[wq.sample().charAt(0) - 'a']++;
+        }
+        System.out.printf("%.2f, %.2f, %.2f\n", (double) counts[0] / draws, (double) counts[1] / draws, (double) counts[2] / draws);
+
+        // Expected output: false, 3
+        System.out.printf("%b, %d\n", wq.isEmpty(), wq.size());
+
+        // Expected output: c most of the time, then one of the other two
+        System.out.printf("%s, %s\n", wq.dequeue(), wq.sample());
+    }
+}